@@ -0,0 +1,197 @@
+package com.passwordmanager.benchmarks;
+
+import com.passwordmanager.crypto.EncryptionManager;
+import com.passwordmanager.crypto.PasswordHasher;
+import com.passwordmanager.database.DatabaseConfig;
+import com.passwordmanager.database.DatabaseManager;
+import com.passwordmanager.database.VaultCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseBenchmark {
+    private static final int ROWS_PER_USER = 250;
+    private static final char[] MASTER_PASSWORD = "benchmark-master".toCharArray();
+    private static final String ENCRYPTION_TYPE = EncryptionManager.EncryptionType.BASE64.name();
+    
+    @State(Scope.Benchmark)
+    public static class Vault {
+        @Param({"1000", "100000", "1000000"})
+        public int rows;
+        
+        @Param({"cold", "warm"})
+        public String cache;
+        
+        String username;
+        int userId;
+        int[] passwordIds;
+        Path database;
+        
+        private final Random random = new Random(42);
+        
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            PasswordHasher.setIterations(PasswordHasher.MIN_ITERATIONS);
+            
+            Path template = template(rows);
+            database = Files.createTempFile("pm-bench-", ".db");
+            Files.copy(template, database, StandardCopyOption.REPLACE_EXISTING);
+            open(database);
+            
+            username = "user" + (rows / ROWS_PER_USER / 2);
+            userId = DatabaseManager.authenticateUser(username, MASTER_PASSWORD);
+            List<DatabaseManager.PasswordEntry> entries = DatabaseManager.getUserPasswords(userId);
+            passwordIds = entries.stream().mapToInt(e -> e.id).toArray();
+            
+            if (!isCold()) {
+                VaultCache.getUserSummaries(userId);
+            }
+        }
+        
+        // Cold means fresh connections with empty statement caches and no resident vault; reopening the pool here
+        // keeps connection setup out of the measured call.
+        @Setup(Level.Invocation)
+        public void resetIfCold() {
+            if (isCold()) {
+                DatabaseManager.shutdown();
+                VaultCache.clear();
+                DatabaseManager.initialize();
+            }
+        }
+        
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            DatabaseManager.shutdown();
+            VaultCache.clear();
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                Files.deleteIfExists(Paths.get(database + suffix));
+            }
+        }
+        
+        boolean isCold() {
+            return "cold".equals(cache);
+        }
+        
+        int randomPasswordId() {
+            return passwordIds[random.nextInt(passwordIds.length)];
+        }
+        
+        String randomSecret() {
+            return EncryptionManager.encryptBase64("secret-" + random.nextInt());
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class PendingDelete {
+        int passwordId;
+        
+        @Setup(Level.Invocation)
+        public void insert(Vault vault) {
+            passwordId = DatabaseManager.savePassword(vault.userId, "doomed.example.com", vault.username,
+                    vault.randomSecret(), ENCRYPTION_TYPE);
+            vault.resetIfCold();
+        }
+    }
+    
+    @Benchmark
+    public Integer authenticateUser(Vault vault) {
+        return DatabaseManager.authenticateUser(vault.username, MASTER_PASSWORD);
+    }
+    
+    @Benchmark
+    public List<DatabaseManager.PasswordEntry> getUserPasswords(Vault vault) {
+        return DatabaseManager.getUserPasswords(vault.userId);
+    }
+    
+    @Benchmark
+    public List<DatabaseManager.PasswordSummary> getUserSummaries(Vault vault) {
+        return VaultCache.getUserSummaries(vault.userId);
+    }
+    
+    @Benchmark
+    public int savePassword(Vault vault) {
+        return DatabaseManager.savePassword(vault.userId, "new.example.com", vault.username,
+                vault.randomSecret(), ENCRYPTION_TYPE);
+    }
+    
+    @Benchmark
+    public void updatePassword(Vault vault) {
+        DatabaseManager.updatePassword(vault.randomPasswordId(), vault.randomSecret(), ENCRYPTION_TYPE);
+    }
+    
+    @Benchmark
+    public void deletePassword(PendingDelete pending) {
+        DatabaseManager.deletePassword(pending.passwordId);
+    }
+    
+    // Seeding a million rows takes a while, so each vault size is built once and copied per trial.
+    private static Path template(int rows) throws IOException {
+        Path template = Paths.get(System.getProperty("java.io.tmpdir"), "pm-bench-template-" + rows + ".db");
+        if (Files.exists(template)) {
+            return template;
+        }
+        
+        Path building = Files.createTempFile("pm-bench-seed-", ".db");
+        open(building);
+        try {
+            seed(rows);
+        } finally {
+            DatabaseManager.shutdown();
+        }
+        Files.move(building, template, StandardCopyOption.REPLACE_EXISTING);
+        return template;
+    }
+    
+    private static void open(Path path) {
+        DatabaseConfig config = DatabaseConfig.fromSystemProperties();
+        config.setPath(path.toString());
+        DatabaseManager.configure(config);
+        DatabaseManager.initialize();
+    }
+    
+    private static void seed(int rows) {
+        int users = Math.max(1, rows / ROWS_PER_USER);
+        Random random = new Random(7);
+        int remaining = rows;
+        for (int u = 0; u < users; u++) {
+            String username = "user" + u;
+            DatabaseManager.registerUser(username, MASTER_PASSWORD);
+            int userId = DatabaseManager.authenticateUser(username, MASTER_PASSWORD);
+            int count = u == users - 1 ? remaining : Math.min(remaining, ROWS_PER_USER);
+            List<DatabaseManager.NewPassword> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                batch.add(new DatabaseManager.NewPassword("service-" + u + "-" + i + ".example.com",
+                        "login" + i + "@example.com",
+                        EncryptionManager.encryptBase64(Long.toHexString(random.nextLong())),
+                        ENCRYPTION_TYPE));
+            }
+            DatabaseManager.savePasswords(userId, batch);
+            remaining -= count;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.passwordmanager.benchmarks;
+
+import com.passwordmanager.crypto.Codec;
+import com.passwordmanager.crypto.CodecRegistry;
+import com.passwordmanager.crypto.EncryptionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptionBenchmark {
+    private static final String ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()-_=+";
+    
+    @Param
+    public EncryptionManager.EncryptionType type;
+    
+    @Param({"8", "64", "512", "4096", "65536"})
+    public int size;
+    
+    private Codec codec;
+    private String plaintext;
+    private String ciphertext;
+    private byte[] plainBytes;
+    private byte[] cipherBytes;
+    private byte[] output;
+    
+    @Setup
+    public void setUp() {
+        codec = CodecRegistry.get(type);
+        
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        plaintext = builder.toString();
+        ciphertext = codec.encrypt(plaintext);
+        
+        plainBytes = plaintext.getBytes(StandardCharsets.UTF_8);
+        cipherBytes = ciphertext.getBytes(StandardCharsets.US_ASCII);
+        output = new byte[Math.max(EncryptionManager.maxEncryptedLength(type, plainBytes.length),
+                EncryptionManager.maxDecryptedLength(type, cipherBytes.length))];
+    }
+    
+    @Benchmark
+    public String encrypt() {
+        return codec.encrypt(plaintext);
+    }
+    
+    @Benchmark
+    public String decrypt() {
+        return codec.decrypt(ciphertext);
+    }
+    
+    @Benchmark
+    public int encryptIntoBuffer() {
+        return EncryptionManager.encrypt(plainBytes, 0, plainBytes.length, type, output, 0);
+    }
+    
+    @Benchmark
+    public int decryptIntoBuffer() {
+        return EncryptionManager.decrypt(cipherBytes, 0, cipherBytes.length, type, output, 0);
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String encryptContended() {
+        return codec.encrypt(plaintext);
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String decryptContended() {
+        return codec.decrypt(ciphertext);
+    }
+}
@@ -0,0 +1,488 @@
+package com.passwordmanager.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+public class BuiltinCodecs {
+    private BuiltinCodecs() {
+    }
+    
+    static Codec of(EncryptionManager.EncryptionType type) {
+        return switch (type) {
+            case BASE64 -> new Base64();
+            case MD5 -> new Md5();
+            case AES_WITH_SALT -> new AesWithSalt();
+            case FEISTEL -> new Feistel();
+            case PLAINTEXT -> new Plaintext();
+            case AES_GCM -> new AesGcm();
+        };
+    }
+    
+    abstract static class TypeCodec implements Codec {
+        final EncryptionManager.EncryptionType type;
+        private final boolean reversible;
+        private final int preferredBatchSize;
+        
+        TypeCodec(EncryptionManager.EncryptionType type, boolean reversible, int preferredBatchSize) {
+            this.type = type;
+            this.reversible = reversible;
+            this.preferredBatchSize = preferredBatchSize;
+        }
+        
+        abstract int encryptBytes(byte[] plaintext, int offset, int length, byte[] out, int outOffset);
+        
+        abstract int decryptBytes(byte[] encrypted, int offset, int length, byte[] out, int outOffset);
+        
+        @Override
+        public String id() {
+            return type.name();
+        }
+        
+        @Override
+        public boolean isReversible() {
+            return reversible;
+        }
+        
+        @Override
+        public int preferredBatchSize() {
+            return preferredBatchSize;
+        }
+        
+        @Override
+        public int maxDecryptedLength(int encryptedLength) {
+            return encryptedLength;
+        }
+        
+        @Override
+        public int encrypt(byte[] plaintext, int offset, int length, byte[] out, int outOffset) {
+            checkRange(plaintext, offset, length);
+            checkOutput(out, outOffset, maxEncryptedLength(length));
+            return encryptBytes(plaintext, offset, length, out, outOffset);
+        }
+        
+        @Override
+        public int decrypt(byte[] encrypted, int offset, int length, byte[] out, int outOffset) {
+            checkRange(encrypted, offset, length);
+            checkOutput(out, outOffset, maxDecryptedLength(length));
+            return decryptBytes(encrypted, offset, length, out, outOffset);
+        }
+        
+        @Override
+        public String encrypt(String plaintext) {
+            byte[] input = plaintext.getBytes(StandardCharsets.UTF_8);
+            byte[] output = EncryptionManager.scratch().output(maxEncryptedLength(input.length));
+            int n = 0;
+            try {
+                n = encryptBytes(input, 0, input.length, output, 0);
+                return new String(output, 0, n, StandardCharsets.US_ASCII);
+            } finally {
+                Arrays.fill(input, (byte) 0);
+                Arrays.fill(output, 0, n, (byte) 0);
+            }
+        }
+        
+        @Override
+        public String decrypt(String encrypted) {
+            char[] chars = decryptToChars(encrypted);
+            try {
+                return new String(chars);
+            } finally {
+                EncryptionManager.wipe(chars);
+            }
+        }
+        
+        @Override
+        public String encrypt(char[] plaintext) {
+            if (plaintext == null) {
+                return null;
+            }
+            EncryptionManager.Scratch scratch = EncryptionManager.scratch();
+            byte[] input = scratch.input(plaintext.length * 3);
+            int length = EncryptionManager.encodeUtf8(plaintext, 0, plaintext.length, input, 0);
+            byte[] output = scratch.output(maxEncryptedLength(length));
+            int n = 0;
+            try {
+                n = encryptBytes(input, 0, length, output, 0);
+                return new String(output, 0, n, StandardCharsets.US_ASCII);
+            } finally {
+                Arrays.fill(input, 0, length, (byte) 0);
+                Arrays.fill(output, 0, n, (byte) 0);
+            }
+        }
+        
+        @Override
+        public char[] decryptToChars(String encrypted) {
+            if (encrypted == null) {
+                return null;
+            }
+            EncryptionManager.Scratch scratch = EncryptionManager.scratch();
+            int length = encrypted.length();
+            byte[] input = scratch.input(length);
+            EncryptionManager.copyAscii(encrypted, input);
+            byte[] output = scratch.output(maxDecryptedLength(length));
+            int n = 0;
+            try {
+                n = decryptBytes(input, 0, length, output, 0);
+                return EncryptionManager.decodeText(output, 0, n);
+            } finally {
+                Arrays.fill(output, 0, n, (byte) 0);
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return id();
+        }
+        
+        private static void checkRange(byte[] data, int offset, int length) {
+            if (offset < 0 || length < 0 || offset > data.length - length) {
+                throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) +
+                        ") out of bounds for length " + data.length);
+            }
+        }
+        
+        private static void checkOutput(byte[] out, int outOffset, int required) {
+            if (outOffset < 0 || out.length - outOffset < required) {
+                throw new IllegalArgumentException("Output buffer too small: " + required + " bytes required");
+            }
+        }
+    }
+    
+    // Codecs whose stored form is the value itself; decrypting hands it back unchanged.
+    abstract static class StoredAsIs extends TypeCodec {
+        StoredAsIs(EncryptionManager.EncryptionType type, boolean reversible, int preferredBatchSize) {
+            super(type, reversible, preferredBatchSize);
+        }
+        
+        @Override
+        int decryptBytes(byte[] encrypted, int offset, int length, byte[] out, int outOffset) {
+            System.arraycopy(encrypted, offset, out, outOffset, length);
+            return length;
+        }
+        
+        @Override
+        public String decrypt(String encrypted) {
+            return encrypted;
+        }
+        
+        @Override
+        public char[] decryptToChars(String encrypted) {
+            return encrypted == null ? null : encrypted.toCharArray();
+        }
+    }
+    
+    public static class Base64 extends TypeCodec {
+        public Base64() {
+            super(EncryptionManager.EncryptionType.BASE64, true, 1024);
+        }
+        
+        @Override
+        public int maxEncryptedLength(int plaintextLength) {
+            return EncryptionManager.base64Length(plaintextLength);
+        }
+        
+        @Override
+        int encryptBytes(byte[] plaintext, int offset, int length, byte[] out, int outOffset) {
+            return EncryptionManager.base64Encode(plaintext, offset, length, out, outOffset);
+        }
+        
+        @Override
+        int decryptBytes(byte[] encrypted, int offset, int length, byte[] out, int outOffset) {
+            try {
+                return EncryptionManager.base64Decode(encrypted, offset, length, out, outOffset);
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Base64 decryption error: " + e.getMessage());
+            }
+        }
+    }
+    
+    public static class Md5 extends StoredAsIs {
+        private static final int HEX_LENGTH = 32;
+        
+        public Md5() {
+            super(EncryptionManager.EncryptionType.MD5, false, 256);
+        }
+        
+        @Override
+        public int maxEncryptedLength(int plaintextLength) {
+            return HEX_LENGTH;
+        }
+        
+        @Override
+        int encryptBytes(byte[] plaintext, int offset, int length, byte[] out, int outOffset) {
+            EncryptionManager.Scratch scratch = EncryptionManager.scratch();
+            MessageDigest md = scratch.md5();
+            md.update(plaintext, offset, length);
+            byte[] digest = scratch.digest();
+            try {
+                md.digest(digest, 0, digest.length);
+            } catch (DigestException e) {
+                throw new RuntimeException("MD5 digest error: " + e.getMessage());
+            }
+            for (int i = 0; i < digest.length; i++) {
+                out[outOffset + 2 * i] = EncryptionManager.HEX[(digest[i] >> 4) & 0x0F];
+                out[outOffset + 2 * i + 1] = EncryptionManager.HEX[digest[i] & 0x0F];
+            }
+            return HEX_LENGTH;
+        }
+    }
+    
+    public static class AesWithSalt extends TypeCodec {
+        private static final byte[] SALT_PREFIX = "PM_SALT_".getBytes(StandardCharsets.US_ASCII);
+        private static final int SALT_LENGTH = 16;
+        
+        public AesWithSalt() {
+            super(EncryptionManager.EncryptionType.AES_WITH_SALT, true, 256);
+        }
+        
+        @Override
+        public int maxEncryptedLength(int plaintextLength) {
+            return SALT_LENGTH + 1 + EncryptionManager.base64Length(SALT_PREFIX.length + SALT_LENGTH + plaintextLength);
+        }
+        
+        @Override
+        int encryptBytes(byte[] plaintext, int offset, int length, byte[] out, int outOffset) {
+            int prefixLength = SALT_PREFIX.length + SALT_LENGTH;
+            int saltedLength = prefixLength + length;
+            byte[] work = EncryptionManager.scratch().work(saltedLength);
+            
+            try {
+                generateSalt(out, outOffset);
+                System.arraycopy(SALT_PREFIX, 0, work, 0, SALT_PREFIX.length);
+                System.arraycopy(out, outOffset, work, SALT_PREFIX.length, SALT_LENGTH);
+                System.arraycopy(plaintext, offset, work, prefixLength, length);
+                xorInPlace(work, 0, saltedLength);
+                
+                out[outOffset + SALT_LENGTH] = ':';
+                return SALT_LENGTH + 1 +
+                        EncryptionManager.base64Encode(work, 0, saltedLength, out, outOffset + SALT_LENGTH + 1);
+            } finally {
+                Arrays.fill(work, 0, saltedLength, (byte) 0);
+            }
+        }
+        
+        @Override
+        int decryptBytes(byte[] encrypted, int offset, int length, byte[] out, int outOffset) {
+            int colon = -1;
+            for (int i = offset; i < offset + length; i++) {
+                if (encrypted[i] == ':') {
+                    colon = i;
+                    break;
+                }
+            }
+            if (colon < 0) {
+                throw new RuntimeException("Invalid encrypted data format");
+            }
+            
+            int saltLength = colon - offset;
+            byte[] work = EncryptionManager.scratch().work(length);
+            int n = 0;
+            try {
+                try {
+                    n = EncryptionManager.base64Decode(encrypted, colon + 1, offset + length - colon - 1, work, 0);
+                } catch (IllegalArgumentException e) {
+                    throw new RuntimeException("AES decryption error: " + e.getMessage());
+                }
+                xorInPlace(work, 0, n);
+                
+                int prefixLength = SALT_PREFIX.length + saltLength;
+                if (n < prefixLength
+                        || !Arrays.equals(work, 0, SALT_PREFIX.length, SALT_PREFIX, 0, SALT_PREFIX.length)
+                        || !Arrays.equals(work, SALT_PREFIX.length, prefixLength, encrypted, offset, colon)) {
+                    throw new RuntimeException("Salt mismatch");
+                }
+                
+                System.arraycopy(work, prefixLength, out, outOffset, n - prefixLength);
+                return n - prefixLength;
+            } finally {
+                Arrays.fill(work, 0, n, (byte) 0);
+            }
+        }
+        
+        private static void xorInPlace(byte[] data, int offset, int length) {
+            byte[] key = EncryptionManager.SECRET_KEY;
+            for (int i = 0; i < length; i++) {
+                data[offset + i] ^= key[i % key.length];
+            }
+        }
+        
+        private static void generateSalt(byte[] out, int outOffset) {
+            long value = System.nanoTime();
+            for (int i = SALT_LENGTH - 1; i >= 0; i--) {
+                out[outOffset + i] = EncryptionManager.HEX[(int) (value & 0x0F)];
+                value >>>= 4;
+            }
+        }
+    }
+    
+    public static class Feistel extends TypeCodec {
+        private static final FeistelCipher CIPHER = new FeistelCipher(EncryptionManager.SECRET_KEY);
+        
+        public Feistel() {
+            super(EncryptionManager.EncryptionType.FEISTEL, true, 256);
+        }
+        
+        @Override
+        public int maxEncryptedLength(int plaintextLength) {
+            return EncryptionManager.base64Length(plaintextLength + (plaintextLength & 1));
+        }
+        
+        @Override
+        int encryptBytes(byte[] plaintext, int offset, int length, byte[] out, int outOffset) {
+            int padded = length + (length & 1);
+            byte[] work = EncryptionManager.scratch().work(padded);
+            try {
+                System.arraycopy(plaintext, offset, work, 0, length);
+                if (padded != length) {
+                    work[length] = 0;
+                }
+                CIPHER.encrypt(work, 0, padded);
+                return EncryptionManager.base64Encode(work, 0, padded, out, outOffset);
+            } finally {
+                Arrays.fill(work, 0, padded, (byte) 0);
+            }
+        }
+        
+        @Override
+        int decryptBytes(byte[] encrypted, int offset, int length, byte[] out, int outOffset) {
+            byte[] work = EncryptionManager.scratch().work(length);
+            int n = 0;
+            try {
+                try {
+                    n = EncryptionManager.base64Decode(encrypted, offset, length, work, 0);
+                } catch (IllegalArgumentException e) {
+                    throw new RuntimeException("Feistel decryption error: " + e.getMessage());
+                }
+                if ((n & 1) != 0) {
+                    throw new RuntimeException("Feistel decryption error: invalid data length");
+                }
+                CIPHER.decrypt(work, 0, n);
+                System.arraycopy(work, 0, out, outOffset, n);
+                return n;
+            } finally {
+                Arrays.fill(work, 0, n, (byte) 0);
+            }
+        }
+    }
+    
+    public static class Plaintext extends StoredAsIs {
+        public Plaintext() {
+            super(EncryptionManager.EncryptionType.PLAINTEXT, true, 4096);
+        }
+        
+        @Override
+        public int maxEncryptedLength(int plaintextLength) {
+            return plaintextLength;
+        }
+        
+        @Override
+        int encryptBytes(byte[] plaintext, int offset, int length, byte[] out, int outOffset) {
+            System.arraycopy(plaintext, offset, out, outOffset, length);
+            return length;
+        }
+        
+        @Override
+        public String encrypt(String plaintext) {
+            return plaintext;
+        }
+        
+        @Override
+        public String encrypt(char[] plaintext) {
+            return plaintext == null ? null : new String(plaintext);
+        }
+    }
+    
+    public static class AesGcm extends TypeCodec {
+        private static final byte VERSION = 1;
+        private static final int NONCE_LENGTH = 12;
+        private static final int TAG_LENGTH = 16;
+        private static final int HEADER_LENGTH = 1 + NONCE_LENGTH;
+        private static final SecretKeySpec KEY = deriveKey();
+        private static final SecureRandom RANDOM = new SecureRandom();
+        private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(() -> {
+            try {
+                return Cipher.getInstance("AES/GCM/NoPadding");
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException("AES-GCM not supported: " + e.getMessage());
+            }
+        });
+        
+        public AesGcm() {
+            super(EncryptionManager.EncryptionType.AES_GCM, true, 64);
+        }
+        
+        private static SecretKeySpec deriveKey() {
+            try {
+                MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+                sha256.update("PM_AES_GCM_v1".getBytes(StandardCharsets.US_ASCII));
+                byte[] key = sha256.digest(EncryptionManager.SECRET_KEY);
+                SecretKeySpec spec = new SecretKeySpec(key, "AES");
+                Arrays.fill(key, (byte) 0);
+                return spec;
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("SHA-256 algorithm not supported: " + e.getMessage());
+            }
+        }
+        
+        @Override
+        public int maxEncryptedLength(int plaintextLength) {
+            return EncryptionManager.base64Length(HEADER_LENGTH + plaintextLength + TAG_LENGTH);
+        }
+        
+        @Override
+        int encryptBytes(byte[] plaintext, int offset, int length, byte[] out, int outOffset) {
+            int sealedLength = HEADER_LENGTH + length + TAG_LENGTH;
+            byte[] work = EncryptionManager.scratch().work(sealedLength);
+            try {
+                work[0] = VERSION;
+                byte[] nonce = EncryptionManager.scratch().nonce();
+                RANDOM.nextBytes(nonce);
+                System.arraycopy(nonce, 0, work, 1, NONCE_LENGTH);
+                
+                Cipher cipher = CIPHER.get();
+                cipher.init(Cipher.ENCRYPT_MODE, KEY, new GCMParameterSpec(TAG_LENGTH * 8, work, 1, NONCE_LENGTH));
+                int n = cipher.doFinal(plaintext, offset, length, work, HEADER_LENGTH);
+                return EncryptionManager.base64Encode(work, 0, HEADER_LENGTH + n, out, outOffset);
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException("AES-GCM encryption error: " + e.getMessage());
+            } finally {
+                Arrays.fill(work, 0, sealedLength, (byte) 0);
+            }
+        }
+        
+        @Override
+        int decryptBytes(byte[] encrypted, int offset, int length, byte[] out, int outOffset) {
+            byte[] work = EncryptionManager.scratch().work(length);
+            int n = 0;
+            try {
+                try {
+                    n = EncryptionManager.base64Decode(encrypted, offset, length, work, 0);
+                } catch (IllegalArgumentException e) {
+                    throw new RuntimeException("AES-GCM decryption error: " + e.getMessage());
+                }
+                if (n < HEADER_LENGTH + TAG_LENGTH) {
+                    throw new RuntimeException("Invalid encrypted data format");
+                }
+                if (work[0] != VERSION) {
+                    throw new RuntimeException("Unsupported AES-GCM format version: " + work[0]);
+                }
+                
+                Cipher cipher = CIPHER.get();
+                cipher.init(Cipher.DECRYPT_MODE, KEY, new GCMParameterSpec(TAG_LENGTH * 8, work, 1, NONCE_LENGTH));
+                return cipher.doFinal(work, HEADER_LENGTH, n - HEADER_LENGTH, out, outOffset);
+            } catch (GeneralSecurityException e) {
+                throw new RuntimeException("AES-GCM decryption error: " + e.getMessage());
+            } finally {
+                Arrays.fill(work, 0, n, (byte) 0);
+            }
+        }
+    }
+}
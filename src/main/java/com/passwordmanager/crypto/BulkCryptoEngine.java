@@ -0,0 +1,242 @@
+package com.passwordmanager.crypto;
+
+import com.passwordmanager.database.DatabaseManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+public class BulkCryptoEngine implements AutoCloseable {
+    public static final int DEFAULT_THRESHOLD = 64;
+    
+    private static volatile BulkCryptoEngine shared;
+    
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int threshold;
+    
+    public BulkCryptoEngine() {
+        this(ForkJoinPool.commonPool(), false, 0);
+    }
+    
+    public BulkCryptoEngine(int parallelism) {
+        this(new ForkJoinPool(parallelism), true, 0);
+    }
+    
+    public BulkCryptoEngine(int parallelism, int threshold) {
+        this(new ForkJoinPool(parallelism), true, requirePositive(threshold));
+    }
+    
+    private BulkCryptoEngine(ForkJoinPool pool, boolean ownsPool, int threshold) {
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.threshold = threshold;
+    }
+    
+    public static BulkCryptoEngine shared() {
+        BulkCryptoEngine engine = shared;
+        if (engine == null) {
+            synchronized (BulkCryptoEngine.class) {
+                engine = shared;
+                if (engine == null) {
+                    Integer parallelism = Integer.getInteger("pm.crypto.parallelism");
+                    engine = parallelism == null ? new BulkCryptoEngine() : new BulkCryptoEngine(parallelism);
+                    shared = engine;
+                }
+            }
+        }
+        return engine;
+    }
+    
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+    
+    public BatchResult decrypt(List<DatabaseManager.PasswordEntry> entries) {
+        int[] ids = ids(entries);
+        return run(ids, threshold > 0 ? threshold : DEFAULT_THRESHOLD, i -> {
+            DatabaseManager.PasswordEntry entry = entries.get(i);
+            Codec codec = CodecRegistry.get(entry.encryptionType);
+            if (!codec.isReversible()) {
+                throw new RowFailure("Cannot be decrypted - " + codec.id());
+            }
+            return codec.decrypt(entry.password);
+        });
+    }
+    
+    public BatchResult encrypt(List<String> plaintexts, EncryptionManager.EncryptionType type) {
+        return encrypt(plaintexts, CodecRegistry.get(type));
+    }
+    
+    public BatchResult encrypt(List<String> plaintexts, Codec codec) {
+        int[] ids = new int[plaintexts.size()];
+        Arrays.fill(ids, -1);
+        return run(ids, leafSize(codec), i -> codec.encrypt(plaintexts.get(i)));
+    }
+    
+    public BatchResult reencrypt(List<DatabaseManager.PasswordEntry> entries, EncryptionManager.EncryptionType target) {
+        return reencrypt(entries, CodecRegistry.get(target));
+    }
+    
+    public BatchResult reencrypt(List<DatabaseManager.PasswordEntry> entries, Codec target) {
+        Codec feistel = CodecRegistry.get(EncryptionManager.EncryptionType.FEISTEL);
+        int[] ids = ids(entries);
+        return run(ids, leafSize(target), i -> {
+            DatabaseManager.PasswordEntry entry = entries.get(i);
+            Codec source = CodecRegistry.get(entry.encryptionType);
+            if (source == target) {
+                return entry.password;
+            }
+            if (!source.isReversible()) {
+                throw new RowFailure("Cannot be decrypted - " + source.id());
+            }
+            String plaintext = source.decrypt(entry.password);
+            if (source == feistel) {
+                plaintext = stripFeistelPadding(plaintext);
+            }
+            return target.encrypt(plaintext);
+        });
+    }
+    
+    private static String stripFeistelPadding(String plaintext) {
+        int length = plaintext.length();
+        return length > 0 && plaintext.charAt(length - 1) == '\0' ? plaintext.substring(0, length - 1) : plaintext;
+    }
+    
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+            try {
+                pool.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private int leafSize(Codec codec) {
+        return threshold > 0 ? threshold : Math.max(1, codec.preferredBatchSize());
+    }
+    
+    private static int requirePositive(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        return threshold;
+    }
+    
+    private BatchResult run(int[] ids, int leafSize, RowFunction function) {
+        String[] values = new String[ids.length];
+        String[] errors = new String[ids.length];
+        if (ids.length <= leafSize) {
+            apply(function, values, errors, 0, ids.length);
+        } else {
+            pool.invoke(new Slice(function, values, errors, 0, ids.length, leafSize));
+        }
+        
+        List<Failure> failures = new ArrayList<>();
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                failures.add(new Failure(i, ids[i], errors[i]));
+            }
+        }
+        return new BatchResult(Arrays.asList(values), failures);
+    }
+    
+    private static void apply(RowFunction function, String[] values, String[] errors, int from, int to) {
+        for (int i = from; i < to; i++) {
+            try {
+                values[i] = function.apply(i);
+            } catch (RuntimeException e) {
+                errors[i] = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            }
+        }
+    }
+    
+    private static int[] ids(List<DatabaseManager.PasswordEntry> entries) {
+        int[] ids = new int[entries.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = entries.get(i).id;
+        }
+        return ids;
+    }
+    
+    private interface RowFunction {
+        String apply(int index);
+    }
+    
+    private static class RowFailure extends RuntimeException {
+        RowFailure(String message) {
+            super(message, null, false, false);
+        }
+    }
+    
+    private static class Slice extends RecursiveAction {
+        private final RowFunction function;
+        private final String[] values;
+        private final String[] errors;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        
+        Slice(RowFunction function, String[] values, String[] errors, int from, int to, int leafSize) {
+            this.function = function;
+            this.values = values;
+            this.errors = errors;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                apply(function, values, errors, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Slice(function, values, errors, from, mid, leafSize),
+                    new Slice(function, values, errors, mid, to, leafSize));
+        }
+    }
+    
+    public static class Failure {
+        public final int index;
+        public final int entryId;
+        public final String message;
+        
+        public Failure(int index, int entryId, String message) {
+            this.index = index;
+            this.entryId = entryId;
+            this.message = message;
+        }
+        
+        @Override
+        public String toString() {
+            return "#" + index + (entryId >= 0 ? " (id " + entryId + ")" : "") + ": " + message;
+        }
+    }
+    
+    public static class BatchResult {
+        public final List<String> values;
+        public final List<Failure> failures;
+        
+        public BatchResult(List<String> values, List<Failure> failures) {
+            this.values = Collections.unmodifiableList(values);
+            this.failures = Collections.unmodifiableList(failures);
+        }
+        
+        public int succeeded() {
+            return values.size() - failures.size();
+        }
+        
+        public boolean hasFailures() {
+            return !failures.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.passwordmanager.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public interface Codec {
+    String id();
+    
+    boolean isReversible();
+    
+    default int preferredBatchSize() {
+        return BulkCryptoEngine.DEFAULT_THRESHOLD;
+    }
+    
+    String encrypt(String plaintext);
+    
+    String decrypt(String encrypted);
+    
+    default String encrypt(char[] plaintext) {
+        return plaintext == null ? null : encrypt(new String(plaintext));
+    }
+    
+    default char[] decryptToChars(String encrypted) {
+        String plaintext = decrypt(encrypted);
+        return plaintext == null ? null : plaintext.toCharArray();
+    }
+    
+    // Byte-level variants work on UTF-8 plaintext and ASCII ciphertext in caller-owned buffers. The defaults go
+    // through the String methods and cannot bound their output up front; the built-in codecs override all four.
+    default int maxEncryptedLength(int plaintextLength) {
+        throw new UnsupportedOperationException(id() + " does not report an encrypted length bound");
+    }
+    
+    default int maxDecryptedLength(int encryptedLength) {
+        throw new UnsupportedOperationException(id() + " does not report a decrypted length bound");
+    }
+    
+    default int encrypt(byte[] plaintext, int offset, int length, byte[] out, int outOffset) {
+        String encrypted = encrypt(new String(plaintext, offset, length, StandardCharsets.UTF_8));
+        return copyResult(encrypted.getBytes(StandardCharsets.UTF_8), out, outOffset);
+    }
+    
+    default int decrypt(byte[] encrypted, int offset, int length, byte[] out, int outOffset) {
+        char[] plaintext = decryptToChars(new String(encrypted, offset, length, StandardCharsets.ISO_8859_1));
+        try {
+            return copyResult(new String(plaintext).getBytes(StandardCharsets.UTF_8), out, outOffset);
+        } finally {
+            EncryptionManager.wipe(plaintext);
+        }
+    }
+    
+    private static int copyResult(byte[] result, byte[] out, int outOffset) {
+        try {
+            if (outOffset < 0 || out.length - outOffset < result.length) {
+                throw new IllegalArgumentException("Output buffer too small: " + result.length + " bytes required");
+            }
+            System.arraycopy(result, 0, out, outOffset, result.length);
+            return result.length;
+        } finally {
+            Arrays.fill(result, (byte) 0);
+        }
+    }
+}
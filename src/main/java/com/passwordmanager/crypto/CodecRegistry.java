@@ -0,0 +1,129 @@
+package com.passwordmanager.crypto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+public class CodecRegistry {
+    private static volatile Snapshot snapshot = load(CodecRegistry.class.getClassLoader());
+    
+    public static Codec get(EncryptionManager.EncryptionType type) {
+        return snapshot.byCode[type.ordinal()];
+    }
+    
+    public static Codec get(int code) {
+        Codec[] codecs = snapshot.byCode;
+        if (code < 0 || code >= codecs.length) {
+            throw new IllegalArgumentException("Unknown codec code: " + code);
+        }
+        return codecs[code];
+    }
+    
+    public static Codec get(String id) {
+        Codec codec = snapshot.byId.get(id);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown encryption type: " + id);
+        }
+        return codec;
+    }
+    
+    public static boolean contains(String id) {
+        return snapshot.byId.containsKey(id);
+    }
+    
+    public static int code(String id) {
+        Integer code = snapshot.codes.get(id);
+        if (code == null) {
+            throw new IllegalArgumentException("Unknown encryption type: " + id);
+        }
+        return code;
+    }
+    
+    public static List<Codec> all() {
+        return List.of(snapshot.byCode);
+    }
+    
+    public static List<Codec> reversible() {
+        return Arrays.stream(snapshot.byCode).filter(Codec::isReversible).toList();
+    }
+    
+    public static synchronized void reload(ClassLoader loader) {
+        snapshot = load(loader);
+    }
+    
+    private static Snapshot load(ClassLoader loader) {
+        EncryptionManager.EncryptionType[] types = EncryptionManager.EncryptionType.values();
+        Codec[] builtins = new Codec[types.length];
+        Map<String, Codec> discovered = new HashMap<>();
+        List<Codec> extensions = new ArrayList<>();
+        
+        Iterator<Codec> providers = ServiceLoader.load(Codec.class, loader).iterator();
+        while (true) {
+            Codec codec;
+            try {
+                if (!providers.hasNext()) {
+                    break;
+                }
+                codec = providers.next();
+            } catch (ServiceConfigurationError e) {
+                continue;
+            }
+            // A provider may replace a built-in codec wherever the class path lists it; otherwise the first one wins.
+            Codec previous = discovered.get(codec.id());
+            if (previous != null && !(previous instanceof BuiltinCodecs.TypeCodec)) {
+                continue;
+            }
+            discovered.put(codec.id(), codec);
+            EncryptionManager.EncryptionType type = typeOf(codec.id());
+            if (type != null) {
+                builtins[type.ordinal()] = codec;
+            } else {
+                extensions.add(codec);
+            }
+        }
+        
+        for (EncryptionManager.EncryptionType type : types) {
+            if (builtins[type.ordinal()] == null) {
+                builtins[type.ordinal()] = BuiltinCodecs.of(type);
+            }
+        }
+        extensions.sort(Comparator.comparing(Codec::id));
+        
+        Codec[] byCode = Arrays.copyOf(builtins, builtins.length + extensions.size());
+        for (int i = 0; i < extensions.size(); i++) {
+            byCode[builtins.length + i] = extensions.get(i);
+        }
+        return new Snapshot(byCode);
+    }
+    
+    private static EncryptionManager.EncryptionType typeOf(String id) {
+        for (EncryptionManager.EncryptionType type : EncryptionManager.EncryptionType.values()) {
+            if (type.name().equals(id)) {
+                return type;
+            }
+        }
+        return null;
+    }
+    
+    private static class Snapshot {
+        final Codec[] byCode;
+        final Map<String, Codec> byId;
+        final Map<String, Integer> codes;
+        
+        Snapshot(Codec[] byCode) {
+            this.byCode = byCode;
+            this.byId = new HashMap<>(byCode.length * 2);
+            this.codes = new HashMap<>(byCode.length * 2);
+            for (int i = 0; i < byCode.length; i++) {
+                byId.put(byCode[i].id(), byCode[i]);
+                codes.put(byCode[i].id(), i);
+            }
+        }
+    }
+}
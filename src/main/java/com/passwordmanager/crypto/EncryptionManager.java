@@ -1,8 +1,16 @@
 package com.passwordmanager.crypto;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
+import java.util.Arrays;
 
 public class EncryptionManager {
     
@@ -11,7 +19,8 @@ public class EncryptionManager {
         MD5("MD5"),
         AES_WITH_SALT("AES_WITH_SALT"),
         FEISTEL("FEISTEL"),
-        PLAINTEXT("PLAINTEXT");
+        PLAINTEXT("PLAINTEXT"),
+        AES_GCM("AES_GCM");
         
         private final String displayName;
         
@@ -24,184 +33,393 @@ public class EncryptionManager {
         }
     }
     
-    private static final byte[] SECRET_KEY = generateSecretKey();
-    private static final String SALT_PREFIX = "PM_SALT_";
+    static final byte[] SECRET_KEY = generateSecretKey();
+    static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BASE64_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+    private static final int[] BASE64_VALUES = new int[256];
+    private static final Charset LEGACY_CHARSET = Charset.defaultCharset();
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+    
+    static {
+        Arrays.fill(BASE64_VALUES, -1);
+        for (int i = 0; i < BASE64_ALPHABET.length; i++) {
+            BASE64_VALUES[BASE64_ALPHABET[i]] = i;
+        }
+    }
     
     private static byte[] generateSecretKey() {
         String hardcodedKey = "PasswordManagerSecretKey2024_JDK17_v1";
-        return hardcodedKey.getBytes();
+        return hardcodedKey.getBytes(StandardCharsets.UTF_8);
     }
     
     public static String encryptBase64(String plaintext) {
-        return Base64.getEncoder().encodeToString(plaintext.getBytes());
+        return CodecRegistry.get(EncryptionType.BASE64).encrypt(plaintext);
     }
     
     public static String decryptBase64(String encrypted) {
-        try {
-            return new String(Base64.getDecoder().decode(encrypted));
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("Base64 decryption error: " + e.getMessage());
-        }
+        return CodecRegistry.get(EncryptionType.BASE64).decrypt(encrypted);
     }
     
     public static String encryptMD5(String plaintext) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] messageDigest = md.digest(plaintext.getBytes());
-            return bytesToHex(messageDigest);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("MD5 algorithm not supported: " + e.getMessage());
-        }
+        return CodecRegistry.get(EncryptionType.MD5).encrypt(plaintext);
+    }
+    
+    public static String encryptMD5(char[] plaintext) {
+        return CodecRegistry.get(EncryptionType.MD5).encrypt(plaintext);
     }
     
     public static String encryptAESWithSalt(String plaintext) {
-        String salt = generateSalt();
-        String saltedPassword = SALT_PREFIX + salt + plaintext;
-        
-        try {
-            byte[] encrypted = xorEncrypt(saltedPassword.getBytes(), SECRET_KEY);
-            String result = Base64.getEncoder().encodeToString(encrypted);
-            return salt + ":" + result;
-        } catch (Exception e) {
-            throw new RuntimeException("AES encryption error: " + e.getMessage());
-        }
+        return CodecRegistry.get(EncryptionType.AES_WITH_SALT).encrypt(plaintext);
     }
     
     public static String decryptAESWithSalt(String encrypted) {
-        try {
-            String[] parts = encrypted.split(":", 2);
-            if (parts.length != 2) {
-                throw new RuntimeException("Invalid encrypted data format");
-            }
-            
-            String salt = parts[0];
-            String encryptedData = parts[1];
-            
-            byte[] decrypted = xorDecrypt(Base64.getDecoder().decode(encryptedData), SECRET_KEY);
-            String result = new String(decrypted);
-            
-            if (result.startsWith(SALT_PREFIX + salt)) {
-                return result.substring((SALT_PREFIX + salt).length());
-            } else {
-                throw new RuntimeException("Salt mismatch");
-            }
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("AES decryption error: " + e.getMessage());
-        }
+        return CodecRegistry.get(EncryptionType.AES_WITH_SALT).decrypt(encrypted);
+    }
+    
+    public static String encryptAESGCM(String plaintext) {
+        return CodecRegistry.get(EncryptionType.AES_GCM).encrypt(plaintext);
+    }
+    
+    public static String decryptAESGCM(String encrypted) {
+        return CodecRegistry.get(EncryptionType.AES_GCM).decrypt(encrypted);
     }
     
     public static String encryptFeistel(String plaintext) {
-        byte[] data = plaintext.getBytes();
-        
-        if (data.length % 2 != 0) {
-            byte[] padded = new byte[data.length + 1];
-            System.arraycopy(data, 0, padded, 0, data.length);
-            padded[data.length] = 0;
-            data = padded;
-        }
-        
-        byte[] encrypted = new byte[data.length];
-        
-        for (int round = 0; round < 16; round++) {
-            for (int i = 0; i < data.length; i += 2) {
-                int left = data[i] & 0xFF;
-                int right = data[i + 1] & 0xFF;
-                
-                int f = feistelFunction(right, round);
-                
-                int newLeft = right;
-                int newRight = left ^ f;
-                
-                encrypted[i] = (byte) newLeft;
-                encrypted[i + 1] = (byte) newRight;
-            }
-            System.arraycopy(encrypted, 0, data, 0, encrypted.length);
-        }
-        
-        return Base64.getEncoder().encodeToString(encrypted);
+        return CodecRegistry.get(EncryptionType.FEISTEL).encrypt(plaintext);
     }
-
+    
     public static String decryptFeistel(String encrypted) {
-        byte[] data = Base64.getDecoder().decode(encrypted);
-        byte[] decrypted = new byte[data.length];
-        
-        for (int round = 15; round >= 0; round--) {
-            for (int i = 0; i < data.length; i += 2) {
-                int left = data[i] & 0xFF;
-                int right = data[i + 1] & 0xFF;
-                
-                int f = feistelFunction(left, round);
-                
-                int newLeft = right ^ f;
-                int newRight = left;
-                
-                decrypted[i] = (byte) newLeft;
-                decrypted[i + 1] = (byte) newRight;
-            }
-            System.arraycopy(decrypted, 0, data, 0, decrypted.length);
+        return CodecRegistry.get(EncryptionType.FEISTEL).decrypt(encrypted);
+    }
+    
+    public static String encrypt(String plaintext, EncryptionType type) {
+        if (plaintext == null || plaintext.isEmpty()) {
+            return plaintext;
         }
+        return CodecRegistry.get(type).encrypt(plaintext);
+    }
+    
+    public static String decrypt(String encrypted, EncryptionType type) {
+        if (encrypted == null || encrypted.isEmpty()) {
+            return encrypted;
+        }
+        return CodecRegistry.get(type).decrypt(encrypted);
+    }
+    
+    public static String encrypt(char[] plaintext, EncryptionType type) {
+        if (plaintext == null) {
+            return null;
+        }
+        if (plaintext.length == 0) {
+            return "";
+        }
+        return CodecRegistry.get(type).encrypt(plaintext);
+    }
+    
+    public static char[] decryptToChars(String encrypted, EncryptionType type) {
+        if (encrypted == null) {
+            return null;
+        }
+        if (encrypted.isEmpty()) {
+            return new char[0];
+        }
+        return CodecRegistry.get(type).decryptToChars(encrypted);
+    }
+    
+    public static boolean isReversible(EncryptionType type) {
+        return CodecRegistry.get(type).isReversible();
+    }
+    
+    public static int encrypt(ByteBuffer plaintext, EncryptionType type, ByteBuffer out) {
+        return transform(plaintext, CodecRegistry.get(type), out, true);
+    }
+    
+    public static int decrypt(ByteBuffer encrypted, EncryptionType type, ByteBuffer out) {
+        return transform(encrypted, CodecRegistry.get(type), out, false);
+    }
+    
+    private static int transform(ByteBuffer in, Codec codec, ByteBuffer out, boolean encrypt) {
+        Scratch scratch = SCRATCH.get();
+        int length = in.remaining();
         
-        return new String(decrypted);
+        byte[] src;
+        int srcOffset;
+        if (in.hasArray()) {
+            src = in.array();
+            srcOffset = in.arrayOffset() + in.position();
+        } else {
+            src = scratch.input(length);
+            srcOffset = 0;
+            in.get(in.position(), src, 0, length);
+        }
+        
+        // Codecs bound their writes by the array length, so a backing array that runs past the limit goes through
+        // scratch like a direct buffer does.
+        boolean direct = out.hasArray() && out.arrayOffset() + out.limit() == out.array().length;
+        byte[] dst;
+        int dstOffset;
+        if (direct) {
+            dst = out.array();
+            dstOffset = out.arrayOffset() + out.position();
+        } else {
+            dst = scratch.output(out.remaining());
+            dstOffset = 0;
+        }
+        
+        int n = 0;
+        try {
+            n = encrypt
+                    ? codec.encrypt(src, srcOffset, length, dst, dstOffset)
+                    : codec.decrypt(src, srcOffset, length, dst, dstOffset);
+            if (direct) {
+                out.position(out.position() + n);
+            } else {
+                out.put(dst, 0, n);
+            }
+            in.position(in.position() + length);
+            return n;
+        } finally {
+            if (!in.hasArray()) {
+                Arrays.fill(src, 0, length, (byte) 0);
+            }
+            if (!direct) {
+                Arrays.fill(dst, 0, n, (byte) 0);
+            }
+        }
+    }
+    
+    public static int encrypt(byte[] plaintext, int offset, int length, EncryptionType type,
+                              byte[] out, int outOffset) {
+        return CodecRegistry.get(type).encrypt(plaintext, offset, length, out, outOffset);
+    }
+    
+    public static int decrypt(byte[] encrypted, int offset, int length, EncryptionType type,
+                              byte[] out, int outOffset) {
+        return CodecRegistry.get(type).decrypt(encrypted, offset, length, out, outOffset);
+    }
+    
+    public static int maxEncryptedLength(EncryptionType type, int plaintextLength) {
+        return CodecRegistry.get(type).maxEncryptedLength(plaintextLength);
     }
     
-    private static int feistelFunction(int input, int round) {
-        int key = SECRET_KEY[round % SECRET_KEY.length] & 0xFF;
-        return (input ^ key ^ round) & 0x0F;
+    public static int maxDecryptedLength(EncryptionType type, int encryptedLength) {
+        return CodecRegistry.get(type).maxDecryptedLength(encryptedLength);
     }
     
-    private static byte[] xorEncrypt(byte[] data, byte[] key) {
-        byte[] result = new byte[data.length];
-        for (int i = 0; i < data.length; i++) {
-            result[i] = (byte) (data[i] ^ key[i % key.length]);
+    public static void wipe(byte[] data) {
+        if (data != null) {
+            Arrays.fill(data, (byte) 0);
         }
-        return result;
     }
     
-    private static byte[] xorDecrypt(byte[] data, byte[] key) {
-        return xorEncrypt(data, key);
+    public static void wipe(char[] data) {
+        if (data != null) {
+            Arrays.fill(data, '\0');
+        }
+    }
+    
+    static Scratch scratch() {
+        return SCRATCH.get();
     }
     
-    private static String generateSalt() {
-        return String.format("%016x", System.nanoTime());
+    static int base64Length(int length) {
+        return (length + 2) / 3 * 4;
     }
     
-    private static String bytesToHex(byte[] bytes) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : bytes) {
-            result.append(String.format("%02x", b));
+    // java.util.Base64 has no offset-aware variant that writes into a caller-owned array.
+    static int base64Encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int end = offset + length;
+        int d = dstOffset;
+        int i = offset;
+        for (; i + 2 < end; i += 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[d++] = BASE64_ALPHABET[(bits >>> 18) & 0x3F];
+            dst[d++] = BASE64_ALPHABET[(bits >>> 12) & 0x3F];
+            dst[d++] = BASE64_ALPHABET[(bits >>> 6) & 0x3F];
+            dst[d++] = BASE64_ALPHABET[bits & 0x3F];
+        }
+        int remaining = end - i;
+        if (remaining > 0) {
+            int bits = (src[i] & 0xFF) << 16 | (remaining == 2 ? (src[i + 1] & 0xFF) << 8 : 0);
+            dst[d++] = BASE64_ALPHABET[(bits >>> 18) & 0x3F];
+            dst[d++] = BASE64_ALPHABET[(bits >>> 12) & 0x3F];
+            dst[d++] = remaining == 2 ? BASE64_ALPHABET[(bits >>> 6) & 0x3F] : (byte) '=';
+            dst[d++] = '=';
         }
-        return result.toString();
+        return d - dstOffset;
     }
     
-    public static String encrypt(String plaintext, EncryptionType type) {
-        if (plaintext == null || plaintext.isEmpty()) {
-            return plaintext;
+    static int base64Decode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        int end = offset + length;
+        int padding = 0;
+        while (padding < 2 && end > offset && src[end - 1] == '=') {
+            end--;
+            padding++;
+        }
+        if (padding > 0 && (end - offset + padding) % 4 != 0) {
+            throw new IllegalArgumentException("Invalid base64 padding");
+        }
+        if ((end - offset) % 4 == 1) {
+            throw new IllegalArgumentException("Last unit does not have enough valid bits");
         }
         
-        return switch (type) {
-            case BASE64 -> encryptBase64(plaintext);
-            case MD5 -> encryptMD5(plaintext);
-            case AES_WITH_SALT -> encryptAESWithSalt(plaintext);
-            case FEISTEL -> encryptFeistel(plaintext);
-            case PLAINTEXT -> plaintext;
-        };
+        int d = dstOffset;
+        int bits = 0;
+        int count = 0;
+        for (int i = offset; i < end; i++) {
+            int value = BASE64_VALUES[src[i] & 0xFF];
+            if (value < 0) {
+                throw new IllegalArgumentException("Illegal base64 character " +
+                        Integer.toString(src[i] & 0xFF, 16));
+            }
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                dst[d++] = (byte) (bits >> 16);
+                dst[d++] = (byte) (bits >> 8);
+                dst[d++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 3) {
+            dst[d++] = (byte) (bits >> 10);
+            dst[d++] = (byte) (bits >> 2);
+        } else if (count == 2) {
+            dst[d++] = (byte) (bits >> 4);
+        }
+        return d - dstOffset;
     }
     
-    public static String decrypt(String encrypted, EncryptionType type) {
-        if (encrypted == null || encrypted.isEmpty()) {
-            return encrypted;
+    static void copyAscii(String text, byte[] dst) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            dst[i] = c < 0x80 ? (byte) c : (byte) 0xFF;
+        }
+    }
+    
+    static int encodeUtf8(char[] src, int offset, int length, byte[] dst, int dstOffset) {
+        CharsetEncoder encoder = SCRATCH.get().utf8Encoder().reset();
+        ByteBuffer out = ByteBuffer.wrap(dst, dstOffset, dst.length - dstOffset);
+        CoderResult result = encoder.encode(CharBuffer.wrap(src, offset, length), out, true);
+        if (result.isUnderflow()) {
+            result = encoder.flush(out);
+        }
+        if (!result.isUnderflow()) {
+            throw new RuntimeException("UTF-8 encoding error: " + result);
+        }
+        return out.position() - dstOffset;
+    }
+    
+    static char[] decodeText(byte[] src, int offset, int length) {
+        return decodeText(src, offset, length, LEGACY_CHARSET);
+    }
+    
+    // Rows written before the byte[] API hold String.getBytes() output, i.e. the platform charset; anything that is
+    // not well-formed UTF-8 is decoded the way it was written.
+    static char[] decodeText(byte[] src, int offset, int length, Charset legacyCharset) {
+        Scratch scratch = SCRATCH.get();
+        char[] chars = scratch.chars(length);
+        CharBuffer out = CharBuffer.wrap(chars);
+        CharsetDecoder utf8 = scratch.utf8Decoder().reset();
+        CoderResult result = utf8.decode(ByteBuffer.wrap(src, offset, length), out, true);
+        if (!result.isError()) {
+            result = utf8.flush(out);
+        }
+        if (result.isError()) {
+            Arrays.fill(chars, 0, out.position(), '\0');
+            out.clear();
+            CharsetDecoder legacy = legacyCharset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            legacy.decode(ByteBuffer.wrap(src, offset, length), out, true);
+            legacy.flush(out);
         }
         
-        return switch (type) {
-            case BASE64 -> decryptBase64(encrypted);
-            case MD5 -> encrypted;
-            case AES_WITH_SALT -> decryptAESWithSalt(encrypted);
-            case FEISTEL -> decryptFeistel(encrypted);
-            case PLAINTEXT -> encrypted;
-        };
+        int n = out.position();
+        try {
+            return Arrays.copyOf(chars, n);
+        } finally {
+            Arrays.fill(chars, 0, n, '\0');
+        }
     }
     
-    public static boolean isReversible(EncryptionType type) {
-        return type != EncryptionType.MD5;
+    static class Scratch {
+        private byte[] input = new byte[256];
+        private byte[] output = new byte[256];
+        private byte[] work = new byte[256];
+        private char[] chars = new char[256];
+        private final byte[] digest = new byte[16];
+        private final byte[] nonce = new byte[12];
+        private MessageDigest md5;
+        private CharsetEncoder utf8Encoder;
+        private CharsetDecoder utf8Decoder;
+        
+        byte[] input(int size) {
+            if (input.length < size) {
+                Arrays.fill(input, (byte) 0);
+                input = new byte[size];
+            }
+            return input;
+        }
+        
+        byte[] output(int size) {
+            if (output.length < size) {
+                Arrays.fill(output, (byte) 0);
+                output = new byte[size];
+            }
+            return output;
+        }
+        
+        byte[] work(int size) {
+            if (work.length < size) {
+                Arrays.fill(work, (byte) 0);
+                work = new byte[size];
+            }
+            return work;
+        }
+        
+        char[] chars(int size) {
+            if (chars.length < size) {
+                Arrays.fill(chars, '\0');
+                chars = new char[size];
+            }
+            return chars;
+        }
+        
+        CharsetEncoder utf8Encoder() {
+            if (utf8Encoder == null) {
+                utf8Encoder = StandardCharsets.UTF_8.newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            }
+            return utf8Encoder;
+        }
+        
+        CharsetDecoder utf8Decoder() {
+            if (utf8Decoder == null) {
+                utf8Decoder = StandardCharsets.UTF_8.newDecoder();
+            }
+            return utf8Decoder;
+        }
+        
+        byte[] digest() {
+            return digest;
+        }
+        
+        byte[] nonce() {
+            return nonce;
+        }
+        
+        MessageDigest md5() {
+            if (md5 == null) {
+                try {
+                    md5 = MessageDigest.getInstance("MD5");
+                } catch (NoSuchAlgorithmException e) {
+                    throw new RuntimeException("MD5 algorithm not supported: " + e.getMessage());
+                }
+            }
+            return md5;
+        }
     }
 }
@@ -0,0 +1,175 @@
+package com.passwordmanager.crypto;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Locale;
+
+final class FeistelCipher {
+    enum Implementation {
+        SCALAR,
+        TABLE,
+        SWAR
+    }
+    
+    private static final Logger log = LoggerFactory.getLogger(FeistelCipher.class);
+    private static final int ROUNDS = 16;
+    private static final long LOW_BYTES = 0x00FF00FF00FF00FFL;
+    private static final long LOW_NIBBLES = 0x000F000F000F000FL;
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    
+    private final byte[] key;
+    private final byte[] table = new byte[ROUNDS * 256];
+    private final long[] roundConstants = new long[ROUNDS];
+    private final Implementation implementation;
+    
+    FeistelCipher(byte[] key) {
+        this(key, System.getProperty("pm.crypto.feistel"));
+    }
+    
+    FeistelCipher(byte[] key, String requested) {
+        this.key = key.clone();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int input = 0; input < 256; input++) {
+                table[round << 8 | input] = (byte) feistelFunction(input, round);
+            }
+            roundConstants[round] = ((this.key[round % this.key.length] ^ round) & 0xFFL) * 0x0001000100010001L;
+        }
+        this.implementation = select(requested);
+    }
+    
+    Implementation implementation() {
+        return implementation;
+    }
+    
+    void encrypt(byte[] data, int offset, int length) {
+        encrypt(implementation, data, offset, length);
+    }
+    
+    void decrypt(byte[] data, int offset, int length) {
+        decrypt(implementation, data, offset, length);
+    }
+    
+    private void encrypt(Implementation impl, byte[] data, int offset, int length) {
+        switch (impl) {
+            case SCALAR -> encryptScalar(data, offset, length);
+            case TABLE -> encryptTable(data, offset, length);
+            case SWAR -> {
+                int words = length & ~7;
+                encryptSwar(data, offset, words);
+                encryptTable(data, offset + words, length - words);
+            }
+        }
+    }
+    
+    private void decrypt(Implementation impl, byte[] data, int offset, int length) {
+        switch (impl) {
+            case SCALAR -> decryptScalar(data, offset, length);
+            case TABLE -> decryptTable(data, offset, length);
+            case SWAR -> {
+                int words = length & ~7;
+                decryptSwar(data, offset, words);
+                decryptTable(data, offset + words, length - words);
+            }
+        }
+    }
+    
+    private void encryptScalar(byte[] data, int offset, int length) {
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = offset; i < offset + length; i += 2) {
+                int left = data[i] & 0xFF;
+                int right = data[i + 1] & 0xFF;
+                
+                int f = feistelFunction(right, round);
+                
+                data[i] = (byte) right;
+                data[i + 1] = (byte) (left ^ f);
+            }
+        }
+    }
+    
+    private void decryptScalar(byte[] data, int offset, int length) {
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            for (int i = offset; i < offset + length; i += 2) {
+                int left = data[i] & 0xFF;
+                int right = data[i + 1] & 0xFF;
+                
+                int f = feistelFunction(left, round);
+                
+                data[i] = (byte) (right ^ f);
+                data[i + 1] = (byte) left;
+            }
+        }
+    }
+    
+    private void encryptTable(byte[] data, int offset, int length) {
+        for (int round = 0; round < ROUNDS; round++) {
+            int base = round << 8;
+            for (int i = offset; i < offset + length; i += 2) {
+                byte left = data[i];
+                byte right = data[i + 1];
+                data[i] = right;
+                data[i + 1] = (byte) (left ^ table[base | (right & 0xFF)]);
+            }
+        }
+    }
+    
+    private void decryptTable(byte[] data, int offset, int length) {
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            int base = round << 8;
+            for (int i = offset; i < offset + length; i += 2) {
+                byte left = data[i];
+                byte right = data[i + 1];
+                data[i] = (byte) (right ^ table[base | (left & 0xFF)]);
+                data[i + 1] = left;
+            }
+        }
+    }
+    
+    // Each long holds four (left, right) pairs; left bytes sit in the low byte of every 16-bit lane.
+    private void encryptSwar(byte[] data, int offset, int length) {
+        for (int i = offset; i < offset + length; i += 8) {
+            long w = (long) LONGS.get(data, i);
+            for (int round = 0; round < ROUNDS; round++) {
+                long left = w & LOW_BYTES;
+                long right = (w >>> 8) & LOW_BYTES;
+                long f = (right ^ roundConstants[round]) & LOW_NIBBLES;
+                w = right | ((left ^ f) << 8);
+            }
+            LONGS.set(data, i, w);
+        }
+    }
+    
+    private void decryptSwar(byte[] data, int offset, int length) {
+        for (int i = offset; i < offset + length; i += 8) {
+            long w = (long) LONGS.get(data, i);
+            for (int round = ROUNDS - 1; round >= 0; round--) {
+                long left = w & LOW_BYTES;
+                long right = (w >>> 8) & LOW_BYTES;
+                long f = (left ^ roundConstants[round]) & LOW_NIBBLES;
+                w = (right ^ f) | (left << 8);
+            }
+            LONGS.set(data, i, w);
+        }
+    }
+    
+    private int feistelFunction(int input, int round) {
+        int k = key[round % key.length] & 0xFF;
+        return (input ^ k ^ round) & 0x0F;
+    }
+    
+    private static Implementation select(String requested) {
+        if (requested == null || requested.isBlank()) {
+            return Implementation.SWAR;
+        }
+        try {
+            return Implementation.valueOf(requested.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown pm.crypto.feistel value '{}', using {}", requested, Implementation.SWAR);
+            return Implementation.SWAR;
+        }
+    }
+}
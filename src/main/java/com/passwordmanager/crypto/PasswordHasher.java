@@ -0,0 +1,165 @@
+package com.passwordmanager.crypto;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+public class PasswordHasher {
+    public static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    public static final int MIN_ITERATIONS = 10_000;
+    public static final int MAX_ITERATIONS = 10_000_000;
+    
+    private static final int SALT_LENGTH = 16;
+    private static final int KEY_LENGTH_BITS = 256;
+    private static final int CALIBRATION_ITERATIONS = 10_000;
+    private static final int CALIBRATION_WARMUP = 10;
+    private static final int CALIBRATION_SAMPLES = 5;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    private static volatile int iterations;
+    
+    public static synchronized int calibrate() {
+        Integer configured = Integer.getInteger("pm.login.iterations");
+        if (configured != null) {
+            iterations = clamp(configured);
+            return iterations;
+        }
+        iterations = calibrate(Long.getLong("pm.login.targetMillis", 250));
+        return iterations;
+    }
+    
+    public static int calibrate(long targetMillis) {
+        if (targetMillis < 1) {
+            throw new IllegalArgumentException("Target latency must be positive");
+        }
+        char[] probe = "calibration-probe".toCharArray();
+        byte[] salt = new byte[SALT_LENGTH];
+        
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_WARMUP + CALIBRATION_SAMPLES; i++) {
+            long started = System.nanoTime();
+            derive(probe, salt, CALIBRATION_ITERATIONS);
+            if (i >= CALIBRATION_WARMUP) {
+                best = Math.min(best, System.nanoTime() - started);
+            }
+        }
+        
+        double perIteration = (double) Math.max(best, 1) / CALIBRATION_ITERATIONS;
+        long target = (long) (targetMillis * 1_000_000L / perIteration);
+        return clamp((int) Math.min(Integer.MAX_VALUE, Math.round(target / 1000.0) * 1000));
+    }
+    
+    public static int getIterations() {
+        int current = iterations;
+        return current != 0 ? current : calibrate();
+    }
+    
+    public static void setIterations(int iterations) {
+        PasswordHasher.iterations = clamp(iterations);
+    }
+    
+    public static Hash hash(char[] password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.nextBytes(salt);
+        int cost = getIterations();
+        byte[] derived = derive(password, salt, cost);
+        return new Hash(Base64.getEncoder().encodeToString(derived),
+                Base64.getEncoder().encodeToString(salt), cost);
+    }
+    
+    public static boolean verify(char[] password, String salt, int iterations, String expectedHash) {
+        byte[] expected;
+        byte[] saltBytes;
+        try {
+            expected = Base64.getDecoder().decode(expectedHash);
+            saltBytes = Base64.getDecoder().decode(salt);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        byte[] actual = derive(password, saltBytes, iterations);
+        return MessageDigest.isEqual(expected, actual);
+    }
+    
+    public static boolean verifyLegacy(char[] password, String expectedMd5) {
+        return verifyLegacy(password, expectedMd5, Charset.defaultCharset());
+    }
+    
+    // Pre-PBKDF2 hashes were taken over String.getBytes(), so they depend on the platform charset.
+    static boolean verifyLegacy(char[] password, String expectedMd5, Charset legacyCharset) {
+        byte[] expected = expectedMd5.getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = EncryptionManager.encryptMD5(password).getBytes(StandardCharsets.US_ASCII);
+        if (MessageDigest.isEqual(actual, expected)) {
+            return true;
+        }
+        if (legacyCharset.equals(StandardCharsets.UTF_8)) {
+            return false;
+        }
+        
+        ByteBuffer encoded = null;
+        try {
+            encoded = legacyCharset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .encode(CharBuffer.wrap(password));
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            md5.update(encoded.duplicate());
+            return MessageDigest.isEqual(toHex(md5.digest()), expected);
+        } catch (GeneralSecurityException | CharacterCodingException e) {
+            return false;
+        } finally {
+            if (encoded != null && encoded.hasArray()) {
+                Arrays.fill(encoded.array(), (byte) 0);
+            }
+        }
+    }
+    
+    public static boolean needsRehash(int storedIterations) {
+        return storedIterations < getIterations() * 3L / 4;
+    }
+    
+    private static byte[] derive(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, KEY_LENGTH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Password hashing error: " + e.getMessage());
+        } finally {
+            spec.clearPassword();
+        }
+    }
+    
+    private static byte[] toHex(byte[] digest) {
+        byte[] hex = new byte[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[2 * i] = (byte) Character.forDigit((digest[i] >> 4) & 0x0F, 16);
+            hex[2 * i + 1] = (byte) Character.forDigit(digest[i] & 0x0F, 16);
+        }
+        return hex;
+    }
+    
+    private static int clamp(int iterations) {
+        return Math.max(MIN_ITERATIONS, Math.min(MAX_ITERATIONS, iterations));
+    }
+    
+    public static class Hash {
+        public final String hash;
+        public final String salt;
+        public final int iterations;
+        
+        public Hash(String hash, String salt, int iterations) {
+            this.hash = hash;
+            this.salt = salt;
+            this.iterations = iterations;
+        }
+    }
+}
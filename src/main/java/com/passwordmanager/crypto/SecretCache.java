@@ -0,0 +1,251 @@
+package com.passwordmanager.crypto;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SecretCache {
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+    
+    private static final Map<Long, Secret> secrets = new LinkedHashMap<>(16, 0.75f, true);
+    private static final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+    
+    private static int maxEntries = Integer.getInteger("pm.secrets.maxEntries", 64);
+    private static int slotBytes = Integer.getInteger("pm.secrets.slotBytes", 256);
+    private static volatile long ttlMillis = Long.getLong("pm.secrets.ttlMillis", 60_000L);
+    private static ByteBuffer arena;
+    private static ScheduledExecutorService sweeper;
+    
+    public static char[] reveal(int userId, int passwordId, String ciphertext, Codec codec) {
+        if (!codec.isReversible()) {
+            throw new IllegalArgumentException("Cannot be decrypted - " + codec.id());
+        }
+        long key = key(userId, passwordId);
+        char[] cached = lookup(key, ciphertext, codec.id());
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        
+        misses.incrementAndGet();
+        char[] plaintext = codec.decryptToChars(ciphertext);
+        store(key, ciphertext, codec.id(), plaintext);
+        return plaintext;
+    }
+    
+    public static synchronized void invalidate(int userId, int passwordId) {
+        Secret secret = secrets.remove(key(userId, passwordId));
+        if (secret != null) {
+            release(secret);
+        }
+    }
+    
+    public static synchronized void evictUser(int userId) {
+        Iterator<Map.Entry<Long, Secret>> it = secrets.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Secret> e = it.next();
+            if ((int) (e.getKey() >>> 32) == userId) {
+                it.remove();
+                release(e.getValue());
+            }
+        }
+    }
+    
+    public static synchronized void clear() {
+        for (Secret secret : secrets.values()) {
+            release(secret);
+        }
+        secrets.clear();
+    }
+    
+    public static void setTtlMillis(long ttlMillis) {
+        if (ttlMillis < 1) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        SecretCache.ttlMillis = ttlMillis;
+    }
+    
+    public static synchronized void setMaxEntries(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be at least 1");
+        }
+        clear();
+        SecretCache.maxEntries = maxEntries;
+        arena = null;
+    }
+    
+    public static synchronized void setSlotBytes(int slotBytes) {
+        if (slotBytes < 16) {
+            throw new IllegalArgumentException("Slot size must be at least 16 bytes");
+        }
+        clear();
+        SecretCache.slotBytes = slotBytes;
+        arena = null;
+    }
+    
+    public static synchronized Stats getStats() {
+        return new Stats(secrets.size(), hits.get(), misses.get(), evictions.get());
+    }
+    
+    private static synchronized char[] lookup(long key, String ciphertext, String codecId) {
+        Secret secret = secrets.get(key);
+        if (secret == null) {
+            return null;
+        }
+        if (secret.expiresAt < System.currentTimeMillis()
+                || !secret.ciphertext.equals(ciphertext) || !secret.codecId.equals(codecId)) {
+            secrets.remove(key);
+            release(secret);
+            return null;
+        }
+        return decode(secret);
+    }
+    
+    private static synchronized void store(long key, String ciphertext, String codecId, char[] plaintext) {
+        Secret previous = secrets.remove(key);
+        if (previous != null) {
+            release(previous);
+        }
+        if (arena == null) {
+            allocateArena();
+        }
+        if (freeSlots.isEmpty()) {
+            Iterator<Secret> eldest = secrets.values().iterator();
+            release(eldest.next());
+            eldest.remove();
+        }
+        
+        int slot = freeSlots.pop();
+        ByteBuffer target = arena.slice(slot * slotBytes, slotBytes);
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        CoderResult result = encoder.encode(CharBuffer.wrap(plaintext), target, true);
+        if (!result.isUnderflow() || !encoder.flush(target).isUnderflow()) {
+            zero(slot);
+            freeSlots.push(slot);
+            return;
+        }
+        
+        secrets.put(key, new Secret(slot, target.position(), ciphertext, codecId,
+                System.currentTimeMillis() + ttlMillis));
+        startSweeper();
+    }
+    
+    private static char[] decode(Secret secret) {
+        ByteBuffer source = arena.slice(secret.slot * slotBytes, secret.length);
+        char[] chars = new char[secret.length];
+        CharBuffer target = CharBuffer.wrap(chars);
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        decoder.decode(source, target, true);
+        decoder.flush(target);
+        if (target.position() == chars.length) {
+            return chars;
+        }
+        char[] exact = Arrays.copyOf(chars, target.position());
+        EncryptionManager.wipe(chars);
+        return exact;
+    }
+    
+    private static synchronized void expire() {
+        long now = System.currentTimeMillis();
+        Iterator<Secret> it = secrets.values().iterator();
+        while (it.hasNext()) {
+            Secret secret = it.next();
+            if (secret.expiresAt < now) {
+                it.remove();
+                release(secret);
+            }
+        }
+    }
+    
+    private static void release(Secret secret) {
+        zero(secret.slot);
+        freeSlots.push(secret.slot);
+        evictions.incrementAndGet();
+    }
+    
+    private static void zero(int slot) {
+        int offset = slot * slotBytes;
+        for (int i = 0; i < slotBytes; i++) {
+            arena.put(offset + i, (byte) 0);
+        }
+    }
+    
+    private static void allocateArena() {
+        arena = ByteBuffer.allocateDirect(maxEntries * slotBytes);
+        freeSlots.clear();
+        for (int i = 0; i < maxEntries; i++) {
+            freeSlots.push(i);
+        }
+    }
+    
+    private static void startSweeper() {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "secret-cache-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(SecretCache::expire,
+                SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    
+    private static long key(int userId, int passwordId) {
+        return ((long) userId << 32) | (passwordId & 0xFFFFFFFFL);
+    }
+    
+    private static class Secret {
+        final int slot;
+        final int length;
+        final String ciphertext;
+        final String codecId;
+        final long expiresAt;
+        
+        Secret(int slot, int length, String ciphertext, String codecId, long expiresAt) {
+            this.slot = slot;
+            this.length = length;
+            this.ciphertext = ciphertext;
+            this.codecId = codecId;
+            this.expiresAt = expiresAt;
+        }
+    }
+    
+    public static class Stats {
+        public final int residentSecrets;
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        
+        public Stats(int residentSecrets, long hits, long misses, long evictions) {
+            this.residentSecrets = residentSecrets;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+        
+        @Override
+        public String toString() {
+            return "residentSecrets=" + residentSecrets +
+                    ", hits=" + hits +
+                    ", misses=" + misses +
+                    ", evictions=" + evictions;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.passwordmanager.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConnectionPool {
+    private final DatabaseConfig config;
+    private final Slot writer;
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    private final List<Slot> readers = new ArrayList<>();
+    private final BlockingQueue<Slot> idleReaders;
+    private final AtomicInteger schemaGeneration = new AtomicInteger();
+    private final Counters counters = new Counters();
+    private volatile boolean closed;
+    
+    public ConnectionPool(String url, DatabaseConfig config) throws SQLException {
+        this.config = config;
+        this.idleReaders = new ArrayBlockingQueue<>(config.getReaderCount());
+        
+        writer = new Slot(DriverManager.getConnection(url));
+        try {
+            try (Statement stmt = writer.connection.createStatement()) {
+                stmt.execute("PRAGMA journal_mode = WAL");
+            }
+            applyPragmas(writer.connection);
+            
+            for (int i = 0; i < config.getReaderCount(); i++) {
+                Slot reader = new Slot(DriverManager.getConnection(url));
+                readers.add(reader);
+                applyPragmas(reader.connection);
+                try (Statement stmt = reader.connection.createStatement()) {
+                    stmt.execute("PRAGMA query_only = ON");
+                }
+                idleReaders.add(reader);
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+    
+    private void applyPragmas(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + config.getBusyTimeoutMillis());
+            stmt.execute("PRAGMA synchronous = " + config.getSynchronous());
+            stmt.execute("PRAGMA cache_size = " + config.getCacheSize());
+            stmt.execute("PRAGMA mmap_size = " + config.getMmapSize());
+        }
+    }
+    
+    public PooledConnection writer() throws SQLException {
+        ensureOpen();
+        long start = System.nanoTime();
+        try {
+            if (!writerLock.tryLock(config.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                counters.timeouts.incrementAndGet();
+                throw new SQLException("Timed out waiting for the writer connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the writer connection");
+        }
+        counters.writerWaitNanos.addAndGet(System.nanoTime() - start);
+        counters.writerAcquisitions.incrementAndGet();
+        return new PooledConnection(writer, true);
+    }
+    
+    public PooledConnection reader() throws SQLException {
+        ensureOpen();
+        long start = System.nanoTime();
+        Slot slot;
+        try {
+            slot = idleReaders.poll(config.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a reader connection");
+        }
+        if (slot == null) {
+            counters.timeouts.incrementAndGet();
+            throw new SQLException("Timed out waiting for a reader connection");
+        }
+        counters.readerWaitNanos.addAndGet(System.nanoTime() - start);
+        counters.readerAcquisitions.incrementAndGet();
+        return new PooledConnection(slot, false);
+    }
+    
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+    }
+    
+    public void invalidateStatements() {
+        schemaGeneration.incrementAndGet();
+    }
+    
+    private void release(PooledConnection lease) {
+        if (lease.writer) {
+            try {
+                if (!writer.connection.getAutoCommit()) {
+                    writer.connection.rollback();
+                    writer.connection.setAutoCommit(true);
+                }
+            } catch (SQLException ignored) {
+            } finally {
+                writerLock.unlock();
+            }
+        } else {
+            idleReaders.offer(lease.slot);
+        }
+    }
+    
+    public Stats getStats() {
+        long writes = counters.writerAcquisitions.get();
+        long reads = counters.readerAcquisitions.get();
+        return new Stats(
+                readers.size(),
+                idleReaders.size(),
+                writerLock.isLocked(),
+                writes,
+                reads,
+                writes == 0 ? 0 : counters.writerWaitNanos.get() / writes / 1000,
+                reads == 0 ? 0 : counters.readerWaitNanos.get() / reads / 1000,
+                counters.timeouts.get(),
+                counters.statementHits.get(),
+                counters.statementMisses.get(),
+                counters.statementEvictions.get()
+        );
+    }
+    
+    public void close() {
+        closed = true;
+        closeQuietly(writer);
+        for (Slot reader : readers) {
+            closeQuietly(reader);
+        }
+        idleReaders.clear();
+    }
+    
+    private static void closeQuietly(Slot slot) {
+        if (slot == null) {
+            return;
+        }
+        slot.statements.clear();
+        try {
+            slot.connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+    
+    private class Slot {
+        private final Connection connection;
+        private final StatementCache statements;
+        
+        private Slot(Connection connection) {
+            this.connection = connection;
+            this.statements = new StatementCache(connection, config.getStatementCacheSize(), counters);
+        }
+    }
+    
+    static class Counters {
+        final AtomicLong writerAcquisitions = new AtomicLong();
+        final AtomicLong readerAcquisitions = new AtomicLong();
+        final AtomicLong writerWaitNanos = new AtomicLong();
+        final AtomicLong readerWaitNanos = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+        final AtomicLong statementHits = new AtomicLong();
+        final AtomicLong statementMisses = new AtomicLong();
+        final AtomicLong statementEvictions = new AtomicLong();
+    }
+    
+    public class PooledConnection implements AutoCloseable {
+        private final Slot slot;
+        private final boolean writer;
+        private boolean released;
+        
+        private PooledConnection(Slot slot, boolean writer) {
+            this.slot = slot;
+            this.writer = writer;
+        }
+        
+        public Connection connection() {
+            return slot.connection;
+        }
+        
+        public PreparedStatement prepare(String sql) throws SQLException {
+            return slot.statements.prepare(sql, schemaGeneration.get());
+        }
+        
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(this);
+            }
+        }
+    }
+    
+    public static class Stats {
+        public final int readerCount;
+        public final int idleReaders;
+        public final boolean writerBusy;
+        public final long writerAcquisitions;
+        public final long readerAcquisitions;
+        public final long avgWriterWaitMicros;
+        public final long avgReaderWaitMicros;
+        public final long timeouts;
+        public final long statementHits;
+        public final long statementMisses;
+        public final long statementEvictions;
+        
+        public Stats(int readerCount, int idleReaders, boolean writerBusy,
+                     long writerAcquisitions, long readerAcquisitions,
+                     long avgWriterWaitMicros, long avgReaderWaitMicros, long timeouts,
+                     long statementHits, long statementMisses, long statementEvictions) {
+            this.readerCount = readerCount;
+            this.idleReaders = idleReaders;
+            this.writerBusy = writerBusy;
+            this.writerAcquisitions = writerAcquisitions;
+            this.readerAcquisitions = readerAcquisitions;
+            this.avgWriterWaitMicros = avgWriterWaitMicros;
+            this.avgReaderWaitMicros = avgReaderWaitMicros;
+            this.timeouts = timeouts;
+            this.statementHits = statementHits;
+            this.statementMisses = statementMisses;
+            this.statementEvictions = statementEvictions;
+        }
+        
+        @Override
+        public String toString() {
+            return "readers=" + idleReaders + "/" + readerCount + " idle" +
+                    ", writerBusy=" + writerBusy +
+                    ", writerAcquisitions=" + writerAcquisitions +
+                    ", readerAcquisitions=" + readerAcquisitions +
+                    ", avgWriterWait=" + avgWriterWaitMicros + "us" +
+                    ", avgReaderWait=" + avgReaderWaitMicros + "us" +
+                    ", timeouts=" + timeouts +
+                    ", statementHits=" + statementHits +
+                    ", statementMisses=" + statementMisses +
+                    ", statementEvictions=" + statementEvictions;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.passwordmanager.database;
+
+public class DatabaseConfig {
+    private static final String URL_PREFIX = "jdbc:sqlite:";
+    
+    private String path = "password_manager.db";
+    private int readerCount = 4;
+    private String synchronous = "NORMAL";
+    private int cacheSize = -8192;
+    private long mmapSize = 64L * 1024 * 1024;
+    private int busyTimeoutMillis = 5000;
+    private long acquireTimeoutMillis = 10000;
+    private int statementCacheSize = 32;
+    
+    public static DatabaseConfig fromSystemProperties() {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setPath(System.getProperty("pm.db.path", config.path));
+        config.setReaderCount(Integer.getInteger("pm.db.readers", config.readerCount));
+        config.setSynchronous(System.getProperty("pm.db.synchronous", config.synchronous));
+        config.setCacheSize(Integer.getInteger("pm.db.cacheSize", config.cacheSize));
+        config.setMmapSize(Long.getLong("pm.db.mmapSize", config.mmapSize));
+        config.setBusyTimeoutMillis(Integer.getInteger("pm.db.busyTimeoutMillis", config.busyTimeoutMillis));
+        config.setAcquireTimeoutMillis(Long.getLong("pm.db.acquireTimeoutMillis", config.acquireTimeoutMillis));
+        config.setStatementCacheSize(Integer.getInteger("pm.db.statementCacheSize", config.statementCacheSize));
+        return config;
+    }
+    
+    public String getPath() {
+        return path;
+    }
+    
+    public void setPath(String path) {
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("Database path must not be empty");
+        }
+        this.path = path.startsWith(URL_PREFIX) ? path.substring(URL_PREFIX.length()) : path;
+    }
+    
+    public String getUrl() {
+        return URL_PREFIX + path;
+    }
+    
+    public int getReaderCount() {
+        return readerCount;
+    }
+    
+    public void setReaderCount(int readerCount) {
+        if (readerCount < 1) {
+            throw new IllegalArgumentException("Reader count must be at least 1");
+        }
+        this.readerCount = readerCount;
+    }
+    
+    public String getSynchronous() {
+        return synchronous;
+    }
+    
+    public void setSynchronous(String synchronous) {
+        String mode = synchronous.trim().toUpperCase();
+        if (!mode.matches("OFF|NORMAL|FULL|EXTRA")) {
+            throw new IllegalArgumentException("Unsupported synchronous mode: " + synchronous);
+        }
+        this.synchronous = mode;
+    }
+    
+    public int getCacheSize() {
+        return cacheSize;
+    }
+    
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+    
+    public long getMmapSize() {
+        return mmapSize;
+    }
+    
+    public void setMmapSize(long mmapSize) {
+        if (mmapSize < 0) {
+            throw new IllegalArgumentException("mmap size must not be negative");
+        }
+        this.mmapSize = mmapSize;
+    }
+    
+    public int getBusyTimeoutMillis() {
+        return busyTimeoutMillis;
+    }
+    
+    public void setBusyTimeoutMillis(int busyTimeoutMillis) {
+        if (busyTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Busy timeout must not be negative");
+        }
+        this.busyTimeoutMillis = busyTimeoutMillis;
+    }
+    
+    public long getAcquireTimeoutMillis() {
+        return acquireTimeoutMillis;
+    }
+    
+    public void setAcquireTimeoutMillis(long acquireTimeoutMillis) {
+        if (acquireTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Acquire timeout must not be negative");
+        }
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+    
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+    
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 1) {
+            throw new IllegalArgumentException("Statement cache size must be at least 1");
+        }
+        this.statementCacheSize = statementCacheSize;
+    }
+}
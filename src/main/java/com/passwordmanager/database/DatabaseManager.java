@@ -1,63 +1,165 @@
 package com.passwordmanager.database;
 
+import com.passwordmanager.crypto.PasswordHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DatabaseManager {
-    private static final String DATABASE_URL = "jdbc:sqlite:password_manager.db";
+    private static final Logger log = LoggerFactory.getLogger(DatabaseManager.class);
     private static final String TABLE_USERS = "users";
     private static final String TABLE_PASSWORDS = "passwords";
     
-    static {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    
+    private static final String SQL_INSERT_USER =
+            "INSERT INTO " + TABLE_USERS + " (username, password_hash, password_salt, password_iterations) " +
+            "VALUES (?, ?, ?, ?)";
+    private static final String SQL_SELECT_CREDENTIALS =
+            "SELECT id, password_hash, password_salt, password_iterations FROM " + TABLE_USERS +
+            " WHERE username = ?";
+    private static final String SQL_UPDATE_CREDENTIALS =
+            "UPDATE " + TABLE_USERS + " SET password_hash = ?, password_salt = ?, password_iterations = ? " +
+            "WHERE id = ? AND password_hash = ?";
+    private static final String SQL_USER_EXISTS =
+            "SELECT 1 FROM " + TABLE_USERS + " WHERE username = ? LIMIT 1";
+    private static final String SQL_INSERT_PASSWORD =
+            "INSERT INTO " + TABLE_PASSWORDS +
+            " (user_id, service_name, username, password, encryption_type) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_SELECT_USER_PASSWORDS =
+            "SELECT * FROM " + TABLE_PASSWORDS + " WHERE user_id = ? ORDER BY created_at DESC";
+    private static final String SUMMARY_COLUMNS =
+            "id, service_name, username, encryption_type, created_at, updated_at";
+    private static final String SQL_SELECT_USER_SUMMARIES =
+            "SELECT " + SUMMARY_COLUMNS + " FROM " + TABLE_PASSWORDS + " WHERE user_id = ? " +
+            "ORDER BY created_at DESC, id";
+    private static final String SQL_SELECT_USER_SUMMARIES_PAGE =
+            SQL_SELECT_USER_SUMMARIES + " LIMIT ? OFFSET ?";
+    private static final String SQL_COUNT_USER_PASSWORDS =
+            "SELECT COUNT(*) FROM " + TABLE_PASSWORDS + " WHERE user_id = ?";
+    private static final String SQL_SELECT_SUMMARY_BY_ID =
+            "SELECT " + SUMMARY_COLUMNS + " FROM " + TABLE_PASSWORDS + " WHERE id = ? AND user_id = ?";
+    private static final String SQL_LAST_INSERT_ID = "SELECT last_insert_rowid()";
+    private static final String SQL_SELECT_PASSWORD_BY_ID =
+            "SELECT * FROM " + TABLE_PASSWORDS + " WHERE id = ? AND user_id = ?";
+    private static final String SQL_SELECT_USER_PASSWORDS_FIRST_PAGE =
+            "SELECT * FROM " + TABLE_PASSWORDS + " WHERE user_id = ? " +
+            "ORDER BY created_at DESC, id LIMIT ?";
+    private static final String SQL_SELECT_USER_PASSWORDS_NEXT_PAGE =
+            "SELECT * FROM " + TABLE_PASSWORDS + " WHERE user_id = ? " +
+            "AND (created_at < ? OR (created_at = ? AND id > ?)) " +
+            "ORDER BY created_at DESC, id LIMIT ?";
+    private static final String SQL_SEARCH_PASSWORDS =
+            "SELECT p.id, p.service_name, p.username, p.encryption_type, p.created_at, p.updated_at " +
+            "FROM passwords_fts f JOIN " + TABLE_PASSWORDS + " p ON p.id = f.rowid " +
+            "WHERE passwords_fts MATCH ? AND p.user_id = ? " +
+            "ORDER BY bm25(passwords_fts, 2.0, 1.0) LIMIT ?";
+    private static final String SQL_SEARCH_SUBSTRING =
+            "SELECT p.id, p.service_name, p.username, p.encryption_type, p.created_at, p.updated_at " +
+            "FROM passwords_trigram t CROSS JOIN " + TABLE_PASSWORDS + " p ON p.id = t.rowid " +
+            "WHERE passwords_trigram MATCH ? AND p.user_id = ? " +
+            "ORDER BY p.created_at DESC, p.id LIMIT ?";
+    private static final String SQL_SEARCH_SHORT_SUBSTRING =
+            "SELECT " + SUMMARY_COLUMNS + " FROM " + TABLE_PASSWORDS + " WHERE user_id = ? " +
+            "AND (instr(lower(service_name), ?) > 0 OR instr(lower(username), ?) > 0) " +
+            "ORDER BY created_at DESC, id LIMIT ?";
+    private static final String SQL_UPDATE_PASSWORD =
+            "UPDATE " + TABLE_PASSWORDS +
+            " SET password = ?, encryption_type = ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ?";
+    private static final String SQL_DELETE_PASSWORD =
+            "DELETE FROM " + TABLE_PASSWORDS + " WHERE id = ?";
+    
+    private static volatile DatabaseConfig config = DatabaseConfig.fromSystemProperties();
+    private static volatile ConnectionPool pool;
+    private static volatile boolean driverLoaded;
+    
+    public static void loadDriver() {
+        if (driverLoaded) {
+            return;
+        }
         try {
             Class.forName("org.sqlite.JDBC");
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("SQLite JDBC driver not found: " + e.getMessage());
         }
+        driverLoaded = true;
     }
     
     public static void initialize() {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            
-            String createUsersTable = "CREATE TABLE IF NOT EXISTS " + TABLE_USERS + " (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "username TEXT NOT NULL UNIQUE," +
-                    "password_hash TEXT NOT NULL," +
-                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                    ")";
-            stmt.execute(createUsersTable);
-            
-            String createPasswordsTable = "CREATE TABLE IF NOT EXISTS " + TABLE_PASSWORDS + " (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "user_id INTEGER NOT NULL," +
-                    "service_name TEXT NOT NULL," +
-                    "username TEXT NOT NULL," +
-                    "password TEXT NOT NULL," +
-                    "encryption_type TEXT NOT NULL," +
-                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                    "FOREIGN KEY(user_id) REFERENCES " + TABLE_USERS + "(id) ON DELETE CASCADE" +
-                    ")";
-            stmt.execute(createPasswordsTable);
-            
+        try (ConnectionPool.PooledConnection lease = pool().writer()) {
+            if (SchemaMigrations.migrate(lease.connection()) > 0) {
+                pool().invalidateStatements();
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Database initialization error: " + e.getMessage());
         }
     }
     
-    public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DATABASE_URL);
+    public static int getSchemaVersion() {
+        try (ConnectionPool.PooledConnection lease = pool().reader()) {
+            return SchemaMigrations.currentVersion(lease.connection());
+        } catch (SQLException e) {
+            throw new RuntimeException("Schema version check error: " + e.getMessage());
+        }
     }
     
-    public static boolean registerUser(String username, String passwordHash) {
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                     "INSERT INTO " + TABLE_USERS + " (username, password_hash) VALUES (?, ?)")) {
-            
+    private static ConnectionPool pool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseManager.class) {
+                current = pool;
+                if (current == null) {
+                    loadDriver();
+                    current = new ConnectionPool(config.getUrl(), config);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    public static synchronized void configure(DatabaseConfig newConfig) {
+        shutdown();
+        config = newConfig;
+    }
+    
+    public static DatabaseConfig getConfig() {
+        return config;
+    }
+    
+    public static ConnectionPool.Stats getPoolStats() {
+        ConnectionPool current = pool;
+        return current == null ? null : current.getStats();
+    }
+    
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+    
+    public static boolean registerUser(String username, char[] password) {
+        PasswordHasher.Hash hash = PasswordHasher.hash(password);
+        try (ConnectionPool.PooledConnection lease = pool().writer()) {
+            PreparedStatement pstmt = lease.prepare(SQL_INSERT_USER);
             pstmt.setString(1, username);
-            pstmt.setString(2, passwordHash);
+            pstmt.setString(2, hash.hash);
+            pstmt.setString(3, hash.salt);
+            pstmt.setInt(4, hash.iterations);
             pstmt.executeUpdate();
             return true;
         } catch (SQLException e) {
@@ -68,30 +170,63 @@ public class DatabaseManager {
         }
     }
     
-    public static Integer authenticateUser(String username, String passwordHash) {
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                     "SELECT id FROM " + TABLE_USERS + " WHERE username = ? AND password_hash = ?")) {
-            
+    public static Integer authenticateUser(String username, char[] password) {
+        Credentials credentials = null;
+        try (ConnectionPool.PooledConnection lease = pool().reader()) {
+            PreparedStatement pstmt = lease.prepare(SQL_SELECT_CREDENTIALS);
             pstmt.setString(1, username);
-            pstmt.setString(2, passwordHash);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getInt("id");
+                    credentials = new Credentials(
+                            rs.getInt("id"),
+                            rs.getString("password_hash"),
+                            rs.getString("password_salt"),
+                            rs.getInt("password_iterations")
+                    );
                 }
             }
         } catch (SQLException e) {
             throw new RuntimeException("Authentication error: " + e.getMessage());
         }
-        return null;
+        
+        if (credentials == null) {
+            PasswordHasher.hash(password);
+            return null;
+        }
+        
+        boolean legacy = credentials.iterations == 0;
+        boolean valid = legacy
+                ? PasswordHasher.verifyLegacy(password, credentials.passwordHash)
+                : PasswordHasher.verify(password, credentials.salt, credentials.iterations, credentials.passwordHash);
+        if (!valid) {
+            return null;
+        }
+        
+        if (legacy || PasswordHasher.needsRehash(credentials.iterations)) {
+            upgradeCredentials(credentials, password);
+        }
+        return credentials.id;
+    }
+    
+    private static void upgradeCredentials(Credentials credentials, char[] password) {
+        PasswordHasher.Hash hash = PasswordHasher.hash(password);
+        try (ConnectionPool.PooledConnection lease = pool().writer()) {
+            PreparedStatement pstmt = lease.prepare(SQL_UPDATE_CREDENTIALS);
+            pstmt.setString(1, hash.hash);
+            pstmt.setString(2, hash.salt);
+            pstmt.setInt(3, hash.iterations);
+            pstmt.setInt(4, credentials.id);
+            pstmt.setString(5, credentials.passwordHash);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            log.warn("Could not upgrade the password hash for user {}; keeping the stored hash", credentials.id, e);
+        }
     }
     
     public static boolean userExists(String username) {
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                     "SELECT 1 FROM " + TABLE_USERS + " WHERE username = ? LIMIT 1")) {
-            
+        try (ConnectionPool.PooledConnection lease = pool().reader()) {
+            PreparedStatement pstmt = lease.prepare(SQL_USER_EXISTS);
             pstmt.setString(1, username);
             try (ResultSet rs = pstmt.executeQuery()) {
                 return rs.next();
@@ -101,43 +236,84 @@ public class DatabaseManager {
         }
     }
     
-    public static void savePassword(int userId, String serviceName, String username, 
-                                    String password, String encryptionType) {
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                     "INSERT INTO " + TABLE_PASSWORDS + 
-                     " (user_id, service_name, username, password, encryption_type) " +
-                     "VALUES (?, ?, ?, ?, ?)")) {
-            
-            pstmt.setInt(1, userId);
-            pstmt.setString(2, serviceName);
-            pstmt.setString(3, username);
-            pstmt.setString(4, password);
-            pstmt.setString(5, encryptionType);
-            pstmt.executeUpdate();
+    public static int savePassword(int userId, String serviceName, String username,
+                                   String password, String encryptionType) {
+        try (ConnectionPool.PooledConnection lease = pool().writer()) {
+            return insertPassword(lease, userId, serviceName, username, password, encryptionType);
         } catch (SQLException e) {
             throw new RuntimeException("Password save error: " + e.getMessage());
         }
     }
     
+    static int insertPassword(ConnectionPool.PooledConnection lease, int userId, String serviceName,
+                              String username, String password, String encryptionType) throws SQLException {
+        PreparedStatement pstmt = lease.prepare(SQL_INSERT_PASSWORD);
+        pstmt.setInt(1, userId);
+        pstmt.setString(2, serviceName);
+        pstmt.setString(3, username);
+        pstmt.setString(4, password);
+        pstmt.setString(5, encryptionType);
+        pstmt.executeUpdate();
+        
+        try (ResultSet rs = lease.prepare(SQL_LAST_INSERT_ID).executeQuery()) {
+            return rs.next() ? rs.getInt(1) : -1;
+        }
+    }
+    
+    public static int savePasswords(int userId, Collection<NewPassword> passwords) {
+        return savePasswords(userId, passwords, DEFAULT_BATCH_SIZE);
+    }
+    
+    public static int savePasswords(int userId, Collection<NewPassword> passwords, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        if (passwords.isEmpty()) {
+            return 0;
+        }
+        
+        try (ConnectionPool.PooledConnection lease = pool().writer()) {
+            Connection conn = lease.connection();
+            conn.setAutoCommit(false);
+            PreparedStatement pstmt = lease.prepare(SQL_INSERT_PASSWORD);
+            
+            int pending = 0;
+            try {
+                for (NewPassword password : passwords) {
+                    pstmt.setInt(1, userId);
+                    pstmt.setString(2, password.serviceName);
+                    pstmt.setString(3, password.username);
+                    pstmt.setString(4, password.password);
+                    pstmt.setString(5, password.encryptionType);
+                    pstmt.addBatch();
+                    if (++pending == chunkSize) {
+                        pstmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    pstmt.executeBatch();
+                }
+            } finally {
+                pstmt.clearBatch();
+            }
+            
+            conn.commit();
+            conn.setAutoCommit(true);
+            return passwords.size();
+        } catch (SQLException e) {
+            throw new RuntimeException("Password batch save error: " + e.getMessage());
+        }
+    }
+    
     public static List<PasswordEntry> getUserPasswords(int userId) {
         List<PasswordEntry> passwords = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                     "SELECT * FROM " + TABLE_PASSWORDS + " WHERE user_id = ? ORDER BY created_at DESC")) {
-            
+        try (ConnectionPool.PooledConnection lease = pool().reader()) {
+            PreparedStatement pstmt = lease.prepare(SQL_SELECT_USER_PASSWORDS);
             pstmt.setInt(1, userId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    PasswordEntry entry = new PasswordEntry(
-                            rs.getInt("id"),
-                            rs.getString("service_name"),
-                            rs.getString("username"),
-                            rs.getString("password"),
-                            rs.getString("encryption_type"),
-                            rs.getTimestamp("created_at")
-                    );
-                    passwords.add(entry);
+                    passwords.add(readEntry(rs));
                 }
             }
         } catch (SQLException e) {
@@ -146,34 +322,330 @@ public class DatabaseManager {
         return passwords;
     }
     
-    public static void updatePassword(int passwordId, String password, String encryptionType) {
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                     "UPDATE " + TABLE_PASSWORDS + 
-                     " SET password = ?, encryption_type = ?, updated_at = CURRENT_TIMESTAMP " +
-                     "WHERE id = ?")) {
+    public static List<PasswordSummary> getUserPasswordSummaries(int userId) {
+        List<PasswordSummary> summaries = new ArrayList<>();
+        try (ConnectionPool.PooledConnection lease = pool().reader()) {
+            PreparedStatement pstmt = lease.prepare(SQL_SELECT_USER_SUMMARIES);
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.add(readSummary(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Password fetch error: " + e.getMessage());
+        }
+        return summaries;
+    }
+    
+    public static List<PasswordSummary> getUserSummariesPage(int userId, int offset, int limit) {
+        if (offset < 0 || limit < 1) {
+            throw new IllegalArgumentException("Invalid page: offset " + offset + ", limit " + limit);
+        }
+        
+        List<PasswordSummary> summaries = new ArrayList<>(limit);
+        try (ConnectionPool.PooledConnection lease = pool().reader()) {
+            PreparedStatement pstmt = lease.prepare(SQL_SELECT_USER_SUMMARIES_PAGE);
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, limit);
+            pstmt.setInt(3, offset);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.add(readSummary(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Password fetch error: " + e.getMessage());
+        }
+        return summaries;
+    }
+    
+    public static int countUserPasswords(int userId) {
+        try (ConnectionPool.PooledConnection lease = pool().reader()) {
+            PreparedStatement pstmt = lease.prepare(SQL_COUNT_USER_PASSWORDS);
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Password count error: " + e.getMessage());
+        }
+    }
+    
+    public static PasswordSummary getPasswordSummaryById(int userId, int passwordId) {
+        try (ConnectionPool.PooledConnection lease = pool().reader()) {
+            PreparedStatement pstmt = lease.prepare(SQL_SELECT_SUMMARY_BY_ID);
+            pstmt.setInt(1, passwordId);
+            pstmt.setInt(2, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return readSummary(rs);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Password fetch error: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    public static List<PasswordSummary> searchPasswords(int userId, String query, int limit) {
+        List<PasswordSummary> results = new ArrayList<>();
+        String match = toMatchExpression(query);
+        if (match == null || limit < 1) {
+            return results;
+        }
+        
+        try (ConnectionPool.PooledConnection lease = pool().reader()) {
+            PreparedStatement pstmt = lease.prepare(SQL_SEARCH_PASSWORDS);
+            pstmt.setString(1, match);
+            pstmt.setInt(2, userId);
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(readSummary(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Password search error: " + e.getMessage());
+        }
+        return results;
+    }
+    
+    // Same matches and order as the resident VaultCache filter: the trimmed query as a case-insensitive substring of
+    // the service name or login, newest first. The CROSS JOIN keeps the trigram lookup as the outer loop; otherwise
+    // SQLite re-runs the MATCH for every listing row. Queries shorter than a trigram walk the listing index instead
+    // and stop at the limit; there SQLite's lower() only folds ASCII.
+    public static List<PasswordSummary> searchPasswordsBySubstring(int userId, String query, int limit) {
+        List<PasswordSummary> results = new ArrayList<>();
+        String needle = query == null ? "" : query.trim();
+        if (needle.isEmpty() || limit < 1) {
+            return results;
+        }
+        
+        boolean shortQuery = needle.codePointCount(0, needle.length()) < 3;
+        try (ConnectionPool.PooledConnection lease = pool().reader()) {
+            PreparedStatement pstmt;
+            if (shortQuery) {
+                String lowered = needle.toLowerCase(Locale.ROOT);
+                pstmt = lease.prepare(SQL_SEARCH_SHORT_SUBSTRING);
+                pstmt.setInt(1, userId);
+                pstmt.setString(2, lowered);
+                pstmt.setString(3, lowered);
+                pstmt.setInt(4, limit);
+            } else {
+                pstmt = lease.prepare(SQL_SEARCH_SUBSTRING);
+                pstmt.setString(1, '"' + needle.replace("\"", "\"\"") + '"');
+                pstmt.setInt(2, userId);
+                pstmt.setInt(3, limit);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(readSummary(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Password search error: " + e.getMessage());
+        }
+        return results;
+    }
+    
+    private static String toMatchExpression(String query) {
+        if (query == null) {
+            return null;
+        }
+        StringBuilder match = new StringBuilder();
+        for (String token : query.split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(token).append("\"*");
+        }
+        return match.length() == 0 ? null : match.toString();
+    }
+    
+    public static PasswordEntry getPasswordById(int userId, int passwordId) {
+        try (ConnectionPool.PooledConnection lease = pool().reader()) {
+            PreparedStatement pstmt = lease.prepare(SQL_SELECT_PASSWORD_BY_ID);
+            pstmt.setInt(1, passwordId);
+            pstmt.setInt(2, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return readEntry(rs);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Password fetch error: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    public static PasswordPage getUserPasswordsPage(int userId, PageCursor after, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        
+        List<PasswordEntry> entries = new ArrayList<>(Math.min(pageSize, 1024));
+        String lastCreatedAt = null;
+        try (ConnectionPool.PooledConnection lease = pool().reader()) {
+            PreparedStatement pstmt;
+            if (after == null) {
+                pstmt = lease.prepare(SQL_SELECT_USER_PASSWORDS_FIRST_PAGE);
+                pstmt.setInt(1, userId);
+                pstmt.setInt(2, pageSize);
+            } else {
+                pstmt = lease.prepare(SQL_SELECT_USER_PASSWORDS_NEXT_PAGE);
+                pstmt.setInt(1, userId);
+                pstmt.setString(2, after.createdAt);
+                pstmt.setString(3, after.createdAt);
+                pstmt.setInt(4, after.id);
+                pstmt.setInt(5, pageSize);
+            }
             
-            pstmt.setString(1, password);
-            pstmt.setString(2, encryptionType);
-            pstmt.setInt(3, passwordId);
-            pstmt.executeUpdate();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(readEntry(rs));
+                    lastCreatedAt = rs.getString("created_at");
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Password fetch error: " + e.getMessage());
+        }
+        
+        PageCursor next = null;
+        if (entries.size() == pageSize) {
+            next = new PageCursor(lastCreatedAt, entries.get(entries.size() - 1).id);
+        }
+        return new PasswordPage(entries, next);
+    }
+    
+    public static void forEachUserPassword(int userId, Consumer<PasswordEntry> consumer) {
+        try (Stream<PasswordEntry> entries = streamUserPasswords(userId)) {
+            entries.forEach(consumer);
+        }
+    }
+    
+    public static Stream<PasswordEntry> streamUserPasswords(int userId) {
+        ConnectionPool.PooledConnection lease = null;
+        ResultSet rs = null;
+        try {
+            lease = pool().reader();
+            PreparedStatement pstmt = lease.prepare(SQL_SELECT_USER_PASSWORDS_FIRST_PAGE);
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, -1);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            if (lease != null) {
+                lease.close();
+            }
+            throw new RuntimeException("Password fetch error: " + e.getMessage());
+        }
+        
+        ResultSet cursor = rs;
+        ConnectionPool.PooledConnection owner = lease;
+        Spliterator<PasswordEntry> spliterator = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super PasswordEntry> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(readEntry(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Password fetch error: " + e.getMessage());
+                }
+            }
+        };
+        
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                cursor.close();
+            } catch (SQLException ignored) {
+            } finally {
+                owner.close();
+            }
+        });
+    }
+    
+    private static PasswordEntry readEntry(ResultSet rs) throws SQLException {
+        return new PasswordEntry(
+                rs.getInt("id"),
+                rs.getString("service_name"),
+                rs.getString("username"),
+                rs.getString("password"),
+                rs.getString("encryption_type"),
+                rs.getTimestamp("created_at")
+        );
+    }
+    
+    private static PasswordSummary readSummary(ResultSet rs) throws SQLException {
+        return new PasswordSummary(
+                rs.getInt("id"),
+                rs.getString("service_name"),
+                rs.getString("username"),
+                rs.getString("encryption_type"),
+                rs.getTimestamp("created_at"),
+                rs.getTimestamp("updated_at")
+        );
+    }
+    
+    public static void updatePassword(int passwordId, String password, String encryptionType) {
+        try (ConnectionPool.PooledConnection lease = pool().writer()) {
+            updatePassword(lease, passwordId, password, encryptionType);
         } catch (SQLException e) {
             throw new RuntimeException("Password update error: " + e.getMessage());
         }
     }
     
+    static int updatePassword(ConnectionPool.PooledConnection lease, int passwordId,
+                              String password, String encryptionType) throws SQLException {
+        PreparedStatement pstmt = lease.prepare(SQL_UPDATE_PASSWORD);
+        pstmt.setString(1, password);
+        pstmt.setString(2, encryptionType);
+        pstmt.setInt(3, passwordId);
+        return pstmt.executeUpdate();
+    }
+    
     public static void deletePassword(int passwordId) {
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                     "DELETE FROM " + TABLE_PASSWORDS + " WHERE id = ?")) {
-            
-            pstmt.setInt(1, passwordId);
-            pstmt.executeUpdate();
+        try (ConnectionPool.PooledConnection lease = pool().writer()) {
+            deletePassword(lease, passwordId);
         } catch (SQLException e) {
             throw new RuntimeException("Password delete error: " + e.getMessage());
         }
     }
     
+    static int deletePassword(ConnectionPool.PooledConnection lease, int passwordId) throws SQLException {
+        PreparedStatement pstmt = lease.prepare(SQL_DELETE_PASSWORD);
+        pstmt.setInt(1, passwordId);
+        return pstmt.executeUpdate();
+    }
+    
+    static ConnectionPool.PooledConnection writerLease() throws SQLException {
+        return pool().writer();
+    }
+    
+    static ConnectionPool.PooledConnection readerLease() throws SQLException {
+        return pool().reader();
+    }
+    
+    private static class Credentials {
+        final int id;
+        final String passwordHash;
+        final String salt;
+        final int iterations;
+        
+        Credentials(int id, String passwordHash, String salt, int iterations) {
+            this.id = id;
+            this.passwordHash = passwordHash;
+            this.salt = salt;
+            this.iterations = iterations;
+        }
+    }
+    
     public static class PasswordEntry {
         public final int id;
         public final String serviceName;
@@ -197,4 +669,73 @@ public class DatabaseManager {
             return serviceName + " (" + username + ")";
         }
     }
+    
+    public static class PasswordSummary {
+        // The order of the listing queries: ORDER BY created_at DESC, id.
+        public static final Comparator<PasswordSummary> LISTING_ORDER =
+                Comparator.comparing((PasswordSummary summary) -> summary.createdAt,
+                                Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparingInt(summary -> summary.id);
+        
+        public final int id;
+        public final String serviceName;
+        public final String username;
+        public final String encryptionType;
+        public final Timestamp createdAt;
+        public final Timestamp updatedAt;
+        
+        public PasswordSummary(int id, String serviceName, String username,
+                               String encryptionType, Timestamp createdAt, Timestamp updatedAt) {
+            this.id = id;
+            this.serviceName = serviceName;
+            this.username = username;
+            this.encryptionType = encryptionType;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+        }
+        
+        @Override
+        public String toString() {
+            return serviceName + " (" + username + ")";
+        }
+    }
+    
+    public static class NewPassword {
+        public final String serviceName;
+        public final String username;
+        public final String password;
+        public final String encryptionType;
+        
+        public NewPassword(String serviceName, String username,
+                           String password, String encryptionType) {
+            this.serviceName = serviceName;
+            this.username = username;
+            this.password = password;
+            this.encryptionType = encryptionType;
+        }
+    }
+    
+    public static class PageCursor {
+        public final String createdAt;
+        public final int id;
+        
+        public PageCursor(String createdAt, int id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+    }
+    
+    public static class PasswordPage {
+        public final List<PasswordEntry> entries;
+        public final PageCursor nextCursor;
+        
+        public PasswordPage(List<PasswordEntry> entries, PageCursor nextCursor) {
+            this.entries = entries;
+            this.nextCursor = nextCursor;
+        }
+        
+        public boolean hasNext() {
+            return nextCursor != null;
+        }
+    }
 }
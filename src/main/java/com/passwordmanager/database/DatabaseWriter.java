@@ -0,0 +1,252 @@
+package com.passwordmanager.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class DatabaseWriter {
+    private static final int MAX_BATCH_SIZE = DatabaseManager.DEFAULT_BATCH_SIZE;
+    
+    private static final BlockingQueue<Operation> queue = new LinkedBlockingQueue<>();
+    private static Thread thread;
+    private static boolean stopped;
+    
+    private enum Kind {
+        INSERT,
+        UPDATE,
+        DELETE,
+        FLUSH,
+        STOP
+    }
+    
+    public static CompletableFuture<Integer> savePassword(int userId, String serviceName, String username,
+                                                          String password, String encryptionType) {
+        Operation op = new Operation(Kind.INSERT);
+        op.userId = userId;
+        op.serviceName = serviceName;
+        op.username = username;
+        op.password = password;
+        op.encryptionType = encryptionType;
+        return submit(op);
+    }
+    
+    public static CompletableFuture<Void> updatePassword(int passwordId, String password, String encryptionType) {
+        Operation op = new Operation(Kind.UPDATE);
+        op.passwordId = passwordId;
+        op.password = password;
+        op.encryptionType = encryptionType;
+        return submit(op);
+    }
+    
+    public static CompletableFuture<Void> deletePassword(int passwordId) {
+        Operation op = new Operation(Kind.DELETE);
+        op.passwordId = passwordId;
+        return submit(op);
+    }
+    
+    public static void flush() {
+        if (Thread.currentThread() == thread) {
+            return;
+        }
+        CompletableFuture<Void> done;
+        synchronized (DatabaseWriter.class) {
+            if (thread == null) {
+                return;
+            }
+            done = submit(new Operation(Kind.FLUSH));
+        }
+        done.join();
+    }
+    
+    public static void shutdown() {
+        Thread current;
+        synchronized (DatabaseWriter.class) {
+            stopped = true;
+            current = thread;
+            if (current == null) {
+                return;
+            }
+            queue.add(new Operation(Kind.STOP));
+            thread = null;
+        }
+        try {
+            current.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Accepts writes again after shutdown(), for callers that re-open the store in the same process.
+    static synchronized void reopen() {
+        stopped = false;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static synchronized <T> CompletableFuture<T> submit(Operation op) {
+        if (stopped) {
+            op.future.completeExceptionally(failure(op, "writer is shut down"));
+        } else {
+            if (thread == null) {
+                thread = new Thread(DatabaseWriter::run, "database-writer");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            queue.add(op);
+        }
+        return (CompletableFuture<T>) (CompletableFuture<?>) op.future;
+    }
+    
+    private static void run() {
+        List<Operation> batch = new ArrayList<>();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                abandonPending();
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            
+            for (Operation op : batch) {
+                if (op.kind == Kind.STOP) {
+                    stopping = true;
+                }
+            }
+            process(batch);
+            batch.clear();
+        }
+        abandonPending();
+    }
+    
+    private static void abandonPending() {
+        List<Operation> pending = new ArrayList<>();
+        synchronized (DatabaseWriter.class) {
+            if (thread == Thread.currentThread()) {
+                thread = null;
+            }
+            queue.drainTo(pending);
+        }
+        for (Operation op : pending) {
+            op.future.completeExceptionally(failure(op, "writer stopped before the operation ran"));
+        }
+    }
+    
+    private static void process(List<Operation> batch) {
+        coalesce(batch);
+        
+        try (ConnectionPool.PooledConnection lease = DatabaseManager.writerLease()) {
+            Connection conn = lease.connection();
+            conn.setAutoCommit(false);
+            try {
+                for (Operation op : batch) {
+                    if (op.isEffective()) {
+                        op.result = execute(lease, op);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+                for (Operation op : batch) {
+                    if (op.isEffective()) {
+                        executeAlone(lease, op);
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            for (Operation op : batch) {
+                if (op.isEffective()) {
+                    op.error = failure(op, e.getMessage());
+                }
+            }
+        }
+        
+        for (Operation op : batch) {
+            Operation outcome = op.supersededBy != null ? op.supersededBy : op;
+            if (outcome.error != null) {
+                op.future.completeExceptionally(outcome.error);
+            } else {
+                op.future.complete(op.supersededBy != null ? null : op.result);
+            }
+        }
+    }
+    
+    private static void coalesce(List<Operation> batch) {
+        Map<Integer, Operation> latest = new HashMap<>();
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            Operation op = batch.get(i);
+            if (op.kind != Kind.UPDATE && op.kind != Kind.DELETE) {
+                continue;
+            }
+            Operation later = latest.get(op.passwordId);
+            if (op.kind == Kind.UPDATE && later != null) {
+                op.supersededBy = later;
+            } else {
+                latest.put(op.passwordId, op);
+            }
+        }
+    }
+    
+    private static void executeAlone(ConnectionPool.PooledConnection lease, Operation op) {
+        try {
+            op.result = execute(lease, op);
+        } catch (SQLException | RuntimeException e) {
+            op.error = failure(op, e.getMessage());
+        }
+    }
+    
+    private static Object execute(ConnectionPool.PooledConnection lease, Operation op) throws SQLException {
+        return switch (op.kind) {
+            case INSERT -> DatabaseManager.insertPassword(lease, op.userId, op.serviceName,
+                    op.username, op.password, op.encryptionType);
+            case UPDATE -> {
+                DatabaseManager.updatePassword(lease, op.passwordId, op.password, op.encryptionType);
+                yield null;
+            }
+            case DELETE -> {
+                DatabaseManager.deletePassword(lease, op.passwordId);
+                yield null;
+            }
+            case FLUSH, STOP -> null;
+        };
+    }
+    
+    private static RuntimeException failure(Operation op, String message) {
+        String action = switch (op.kind) {
+            case INSERT -> "Password save error: ";
+            case UPDATE -> "Password update error: ";
+            case DELETE -> "Password delete error: ";
+            case FLUSH, STOP -> "Database writer error: ";
+        };
+        return new RuntimeException(action + message);
+    }
+    
+    private static class Operation {
+        final Kind kind;
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        int userId;
+        int passwordId;
+        String serviceName;
+        String username;
+        String password;
+        String encryptionType;
+        Operation supersededBy;
+        Object result;
+        RuntimeException error;
+        
+        Operation(Kind kind) {
+            this.kind = kind;
+        }
+        
+        boolean isEffective() {
+            return supersededBy == null && kind != Kind.FLUSH && kind != Kind.STOP;
+        }
+    }
+}
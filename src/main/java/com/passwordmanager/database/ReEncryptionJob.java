@@ -0,0 +1,317 @@
+package com.passwordmanager.database;
+
+import com.passwordmanager.crypto.BulkCryptoEngine;
+import com.passwordmanager.crypto.Codec;
+import com.passwordmanager.crypto.CodecRegistry;
+import com.passwordmanager.crypto.EncryptionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+public class ReEncryptionJob {
+    public interface ProgressListener {
+        void onProgress(Progress progress);
+    }
+    
+    private static final String SQL_SELECT_BATCH =
+            "SELECT id, user_id, service_name, username, password, encryption_type, created_at " +
+            "FROM passwords WHERE id > ? AND encryption_type NOT IN (%s) ORDER BY id LIMIT ?";
+    private static final String SQL_SELECT_USER_BATCH =
+            "SELECT id, user_id, service_name, username, password, encryption_type, created_at " +
+            "FROM passwords WHERE id > ? AND user_id = ? AND encryption_type NOT IN (%s) ORDER BY id LIMIT ?";
+    private static final String SQL_UPDATE_IF_UNCHANGED =
+            "UPDATE passwords SET password = ?, encryption_type = ? " +
+            "WHERE id = ? AND password = ? AND encryption_type = ?";
+    private static final String SQL_SELECT_CHECKPOINT =
+            "SELECT last_id, migrated, conflicts, failed, completed FROM reencryption_jobs WHERE job_key = ?";
+    private static final String SQL_SAVE_CHECKPOINT =
+            "INSERT INTO reencryption_jobs " +
+            "(job_key, user_id, target_type, last_id, migrated, conflicts, failed, completed, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT(job_key) DO UPDATE SET last_id = excluded.last_id, migrated = excluded.migrated, " +
+            "conflicts = excluded.conflicts, failed = excluded.failed, completed = excluded.completed, " +
+            "updated_at = excluded.updated_at";
+    
+    private final Integer userId;
+    private final Codec target;
+    private final List<String> excludedTypes = new ArrayList<>();
+    private final String selectSql;
+    private final String jobKey;
+    private int batchSize = DatabaseManager.DEFAULT_BATCH_SIZE;
+    private double dutyCycle = Double.parseDouble(System.getProperty("pm.reencrypt.dutyCycle", "0.5"));
+    private ProgressListener listener;
+    private volatile boolean cancelled;
+    
+    public ReEncryptionJob(EncryptionManager.EncryptionType target) {
+        this(null, CodecRegistry.get(target));
+    }
+    
+    public ReEncryptionJob(int userId, EncryptionManager.EncryptionType target) {
+        this(Integer.valueOf(userId), CodecRegistry.get(target));
+    }
+    
+    public ReEncryptionJob(Codec target) {
+        this(null, target);
+    }
+    
+    public ReEncryptionJob(int userId, Codec target) {
+        this(Integer.valueOf(userId), target);
+    }
+    
+    private ReEncryptionJob(Integer userId, Codec target) {
+        if (!target.isReversible()) {
+            throw new IllegalArgumentException("Target encryption type must be reversible");
+        }
+        this.userId = userId;
+        this.target = target;
+        this.jobKey = (userId == null ? "all" : "user:" + userId) + ":" + target.id();
+        
+        excludedTypes.add(target.id());
+        for (Codec codec : CodecRegistry.all()) {
+            if (!codec.isReversible()) {
+                excludedTypes.add(codec.id());
+            }
+        }
+        String placeholders = String.join(", ", Collections.nCopies(excludedTypes.size(), "?"));
+        this.selectSql = String.format(userId == null ? SQL_SELECT_BATCH : SQL_SELECT_USER_BATCH, placeholders);
+    }
+    
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+    
+    public void setDutyCycle(double dutyCycle) {
+        if (dutyCycle <= 0 || dutyCycle > 1) {
+            throw new IllegalArgumentException("Duty cycle must be in (0, 1]");
+        }
+        this.dutyCycle = dutyCycle;
+    }
+    
+    public void setProgressListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+    
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    public CompletableFuture<Progress> start() {
+        CompletableFuture<Progress> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(run());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }, "reencryption-job");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return future;
+    }
+    
+    // A dedicated pool at half the cores keeps the migration off the common pool that imports and the UI share.
+    public Progress run() {
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        try (BulkCryptoEngine engine = new BulkCryptoEngine(parallelism)) {
+            Progress progress = loadCheckpoint();
+            while (!cancelled) {
+                long started = System.nanoTime();
+                Batch batch = readBatch(progress.lastId);
+                if (batch.entries.isEmpty()) {
+                    progress = progress.complete();
+                    saveCheckpoint(progress);
+                    break;
+                }
+                
+                BulkCryptoEngine.BatchResult result = engine.reencrypt(batch.entries, target);
+                progress = writeBatch(batch, result, progress);
+                if (listener != null) {
+                    listener.onProgress(progress);
+                }
+                throttle(System.nanoTime() - started);
+            }
+            return progress;
+        } catch (SQLException e) {
+            throw new RuntimeException("Re-encryption error: " + e.getMessage());
+        }
+    }
+    
+    private Progress loadCheckpoint() throws SQLException {
+        try (ConnectionPool.PooledConnection lease = DatabaseManager.readerLease()) {
+            PreparedStatement pstmt = lease.prepare(SQL_SELECT_CHECKPOINT);
+            pstmt.setString(1, jobKey);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next() && rs.getInt("completed") == 0) {
+                    return new Progress(rs.getInt("last_id"), rs.getInt("migrated"),
+                            rs.getInt("conflicts"), rs.getInt("failed"), false);
+                }
+            }
+        }
+        return new Progress(0, 0, 0, 0, false);
+    }
+    
+    private Batch readBatch(int afterId) throws SQLException {
+        Batch batch = new Batch();
+        try (ConnectionPool.PooledConnection lease = DatabaseManager.readerLease()) {
+            PreparedStatement pstmt = lease.prepare(selectSql);
+            int index = 1;
+            pstmt.setInt(index++, afterId);
+            if (userId != null) {
+                pstmt.setInt(index++, userId);
+            }
+            for (String type : excludedTypes) {
+                pstmt.setString(index++, type);
+            }
+            pstmt.setInt(index, batchSize);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    batch.entries.add(new DatabaseManager.PasswordEntry(
+                            rs.getInt("id"),
+                            rs.getString("service_name"),
+                            rs.getString("username"),
+                            rs.getString("password"),
+                            rs.getString("encryption_type"),
+                            rs.getTimestamp("created_at")
+                    ));
+                    batch.userIds.add(rs.getInt("user_id"));
+                }
+            }
+        }
+        return batch;
+    }
+    
+    private Progress writeBatch(Batch batch, BulkCryptoEngine.BatchResult result, Progress progress) throws SQLException {
+        int migrated = 0;
+        int conflicts = 0;
+        Set<Integer> touchedUsers = new HashSet<>();
+        
+        try (ConnectionPool.PooledConnection lease = DatabaseManager.writerLease()) {
+            Connection conn = lease.connection();
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement pstmt = lease.prepare(SQL_UPDATE_IF_UNCHANGED);
+                for (int i = 0; i < batch.entries.size(); i++) {
+                    String value = result.values.get(i);
+                    if (value == null) {
+                        continue;
+                    }
+                    DatabaseManager.PasswordEntry entry = batch.entries.get(i);
+                    pstmt.setString(1, value);
+                    pstmt.setString(2, target.id());
+                    pstmt.setInt(3, entry.id);
+                    pstmt.setString(4, entry.password);
+                    pstmt.setString(5, entry.encryptionType);
+                    if (pstmt.executeUpdate() == 1) {
+                        migrated++;
+                        touchedUsers.add(batch.userIds.get(i));
+                    } else {
+                        conflicts++;
+                    }
+                }
+                
+                int lastId = batch.entries.get(batch.entries.size() - 1).id;
+                progress = new Progress(lastId, progress.migrated + migrated, progress.conflicts + conflicts,
+                        progress.failed + result.failures.size(), false);
+                writeCheckpoint(lease, progress);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        
+        for (int id : touchedUsers) {
+            VaultCache.invalidate(id);
+        }
+        return progress;
+    }
+    
+    private void saveCheckpoint(Progress progress) throws SQLException {
+        try (ConnectionPool.PooledConnection lease = DatabaseManager.writerLease()) {
+            writeCheckpoint(lease, progress);
+        }
+    }
+    
+    private void writeCheckpoint(ConnectionPool.PooledConnection lease, Progress progress) throws SQLException {
+        PreparedStatement pstmt = lease.prepare(SQL_SAVE_CHECKPOINT);
+        pstmt.setString(1, jobKey);
+        if (userId == null) {
+            pstmt.setNull(2, Types.INTEGER);
+        } else {
+            pstmt.setInt(2, userId);
+        }
+        pstmt.setString(3, target.id());
+        pstmt.setInt(4, progress.lastId);
+        pstmt.setInt(5, progress.migrated);
+        pstmt.setInt(6, progress.conflicts);
+        pstmt.setInt(7, progress.failed);
+        pstmt.setInt(8, progress.completed ? 1 : 0);
+        pstmt.executeUpdate();
+    }
+    
+    private void throttle(long busyNanos) {
+        if (dutyCycle >= 1.0) {
+            return;
+        }
+        long pauseMillis = (long) (busyNanos * (1.0 - dutyCycle) / dutyCycle / 1_000_000);
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+        }
+    }
+    
+    private static class Batch {
+        final List<DatabaseManager.PasswordEntry> entries = new ArrayList<>();
+        final List<Integer> userIds = new ArrayList<>();
+    }
+    
+    public static class Progress {
+        public final int lastId;
+        public final int migrated;
+        public final int conflicts;
+        public final int failed;
+        public final boolean completed;
+        
+        public Progress(int lastId, int migrated, int conflicts, int failed, boolean completed) {
+            this.lastId = lastId;
+            this.migrated = migrated;
+            this.conflicts = conflicts;
+            this.failed = failed;
+            this.completed = completed;
+        }
+        
+        Progress complete() {
+            return new Progress(lastId, migrated, conflicts, failed, true);
+        }
+        
+        @Override
+        public String toString() {
+            return "lastId=" + lastId +
+                    ", migrated=" + migrated +
+                    ", conflicts=" + conflicts +
+                    ", failed=" + failed +
+                    ", completed=" + completed;
+        }
+    }
+}
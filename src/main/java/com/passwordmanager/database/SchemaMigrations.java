@@ -0,0 +1,159 @@
+package com.passwordmanager.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+class SchemaMigrations {
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create users and passwords tables",
+                    "CREATE TABLE IF NOT EXISTS users (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                            "username TEXT NOT NULL UNIQUE," +
+                            "password_hash TEXT NOT NULL," +
+                            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                            ")",
+                    "CREATE TABLE IF NOT EXISTS passwords (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                            "user_id INTEGER NOT NULL," +
+                            "service_name TEXT NOT NULL," +
+                            "username TEXT NOT NULL," +
+                            "password TEXT NOT NULL," +
+                            "encryption_type TEXT NOT NULL," +
+                            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                            "FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE" +
+                            ")"),
+            new Migration(2, "Index passwords by owner",
+                    "CREATE INDEX IF NOT EXISTS idx_passwords_user_created " +
+                            "ON passwords (user_id, created_at DESC)",
+                    "CREATE INDEX IF NOT EXISTS idx_passwords_user_service " +
+                            "ON passwords (user_id, service_name)"),
+            new Migration(3, "Full-text index over service names and logins",
+                    "CREATE VIRTUAL TABLE IF NOT EXISTS passwords_fts USING fts5(" +
+                            "service_name, username, " +
+                            "content='passwords', content_rowid='id', " +
+                            "prefix='2 3', tokenize='unicode61 remove_diacritics 2')",
+                    "CREATE TRIGGER IF NOT EXISTS passwords_fts_insert AFTER INSERT ON passwords BEGIN " +
+                            "INSERT INTO passwords_fts (rowid, service_name, username) " +
+                            "VALUES (new.id, new.service_name, new.username); " +
+                            "END",
+                    "CREATE TRIGGER IF NOT EXISTS passwords_fts_delete AFTER DELETE ON passwords BEGIN " +
+                            "INSERT INTO passwords_fts (passwords_fts, rowid, service_name, username) " +
+                            "VALUES ('delete', old.id, old.service_name, old.username); " +
+                            "END",
+                    "CREATE TRIGGER IF NOT EXISTS passwords_fts_update " +
+                            "AFTER UPDATE OF service_name, username ON passwords BEGIN " +
+                            "INSERT INTO passwords_fts (passwords_fts, rowid, service_name, username) " +
+                            "VALUES ('delete', old.id, old.service_name, old.username); " +
+                            "INSERT INTO passwords_fts (rowid, service_name, username) " +
+                            "VALUES (new.id, new.service_name, new.username); " +
+                            "END",
+                    "INSERT INTO passwords_fts (passwords_fts) VALUES ('rebuild')"),
+            new Migration(4, "Covering index for metadata-only vault listing",
+                    "CREATE INDEX IF NOT EXISTS idx_passwords_user_listing ON passwords (" +
+                            "user_id, created_at DESC, id, service_name, username, encryption_type, updated_at)",
+                    "DROP INDEX IF EXISTS idx_passwords_user_created"),
+            new Migration(5, "Checkpoints for resumable re-encryption jobs",
+                    "CREATE TABLE IF NOT EXISTS reencryption_jobs (" +
+                            "job_key TEXT PRIMARY KEY, " +
+                            "user_id INTEGER, " +
+                            "target_type TEXT NOT NULL, " +
+                            "last_id INTEGER NOT NULL DEFAULT 0, " +
+                            "migrated INTEGER NOT NULL DEFAULT 0, " +
+                            "conflicts INTEGER NOT NULL DEFAULT 0, " +
+                            "failed INTEGER NOT NULL DEFAULT 0, " +
+                            "completed INTEGER NOT NULL DEFAULT 0, " +
+                            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)"),
+            new Migration(6, "Per-user salt and iteration count for master password hashes",
+                    "ALTER TABLE users ADD COLUMN password_salt TEXT",
+                    "ALTER TABLE users ADD COLUMN password_iterations INTEGER NOT NULL DEFAULT 0"),
+            new Migration(7, "Trigram index for substring search over service names and logins",
+                    "CREATE VIRTUAL TABLE IF NOT EXISTS passwords_trigram USING fts5(" +
+                            "service_name, username, " +
+                            "content='passwords', content_rowid='id', tokenize='trigram')",
+                    "CREATE TRIGGER IF NOT EXISTS passwords_trigram_insert AFTER INSERT ON passwords BEGIN " +
+                            "INSERT INTO passwords_trigram (rowid, service_name, username) " +
+                            "VALUES (new.id, new.service_name, new.username); " +
+                            "END",
+                    "CREATE TRIGGER IF NOT EXISTS passwords_trigram_delete AFTER DELETE ON passwords BEGIN " +
+                            "INSERT INTO passwords_trigram (passwords_trigram, rowid, service_name, username) " +
+                            "VALUES ('delete', old.id, old.service_name, old.username); " +
+                            "END",
+                    "CREATE TRIGGER IF NOT EXISTS passwords_trigram_update " +
+                            "AFTER UPDATE OF service_name, username ON passwords BEGIN " +
+                            "INSERT INTO passwords_trigram (passwords_trigram, rowid, service_name, username) " +
+                            "VALUES ('delete', old.id, old.service_name, old.username); " +
+                            "INSERT INTO passwords_trigram (rowid, service_name, username) " +
+                            "VALUES (new.id, new.service_name, new.username); " +
+                            "END",
+                    "INSERT INTO passwords_trigram (passwords_trigram) VALUES ('rebuild')")
+    );
+    
+    static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+    
+    static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    static int migrate(Connection conn) throws SQLException {
+        int version = currentVersion(conn);
+        if (version > latestVersion()) {
+            throw new SQLException("Database schema version " + version +
+                    " is newer than supported version " + latestVersion());
+        }
+        
+        int applied = 0;
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= version) {
+                continue;
+            }
+            apply(conn, migration);
+            applied++;
+        }
+        
+        if (applied > 0) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA optimize");
+            }
+        }
+        return applied;
+    }
+    
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.statements) {
+                stmt.execute(sql);
+            }
+            stmt.execute("PRAGMA user_version = " + migration.version);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + migration.version + " (" +
+                    migration.description + ") failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+    
+    private static class Migration {
+        final int version;
+        final String description;
+        final String[] statements;
+        
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.passwordmanager.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class StatementCache {
+    private final Connection connection;
+    private final int capacity;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+    private final ConnectionPool.Counters counters;
+    private int generation;
+    
+    StatementCache(Connection connection, int capacity, ConnectionPool.Counters counters) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.counters = counters;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+    
+    PreparedStatement prepare(String sql, int currentGeneration) throws SQLException {
+        if (generation != currentGeneration) {
+            clear();
+            generation = currentGeneration;
+        }
+        
+        PreparedStatement pstmt = statements.get(sql);
+        if (pstmt != null) {
+            counters.statementHits.incrementAndGet();
+            pstmt.clearParameters();
+            return pstmt;
+        }
+        
+        counters.statementMisses.incrementAndGet();
+        pstmt = connection.prepareStatement(sql);
+        statements.put(sql, pstmt);
+        evictOverflow();
+        return pstmt;
+    }
+    
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, PreparedStatement>> it = statements.entrySet().iterator();
+        while (statements.size() > capacity && it.hasNext()) {
+            closeQuietly(it.next().getValue());
+            it.remove();
+            counters.statementEvictions.incrementAndGet();
+        }
+    }
+    
+    void clear() {
+        for (PreparedStatement pstmt : statements.values()) {
+            closeQuietly(pstmt);
+        }
+        statements.clear();
+    }
+    
+    private static void closeQuietly(PreparedStatement pstmt) {
+        try {
+            pstmt.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.passwordmanager.database;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+class SubstringIndex {
+    private static final int MAX_GRAM = 3;
+    private static final int COMPACT_THRESHOLD = 1024;
+    
+    private GramTable postings = new GramTable();
+    private final Map<Integer, Integer> slots = new HashMap<>();
+    private BitSet live = new BitSet();
+    private int[] ids = new int[64];
+    private String[] texts = new String[64];
+    private int size;
+    private int dead;
+    
+    void add(int id, String serviceName, String username) {
+        remove(id);
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            texts = Arrays.copyOf(texts, size * 2);
+        }
+        int slot = size++;
+        String text = normalize(serviceName) + '\n' + normalize(username);
+        ids[slot] = id;
+        texts[slot] = text;
+        live.set(slot);
+        slots.put(id, slot);
+        index(slot, text);
+    }
+    
+    void remove(int id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        live.clear(slot);
+        texts[slot] = null;
+        dead++;
+        if (dead > COMPACT_THRESHOLD && dead > slots.size()) {
+            compact();
+        }
+    }
+    
+    BitSet search(String query) {
+        String q = normalize(query);
+        BitSet matches = new BitSet();
+        if (q.isEmpty()) {
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                matches.set(ids[slot]);
+            }
+            return matches;
+        }
+        
+        if (q.length() <= MAX_GRAM) {
+            Postings exact = postings.get(key(q, 0, q.length()));
+            if (exact != null) {
+                for (int i = 0; i < exact.size; i++) {
+                    int slot = exact.slots[i];
+                    if (live.get(slot)) {
+                        matches.set(ids[slot]);
+                    }
+                }
+            }
+            return matches;
+        }
+        
+        Postings[] lists = new Postings[q.length() - MAX_GRAM + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(key(q, i, MAX_GRAM));
+            if (lists[i] == null) {
+                return matches;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        
+        int[] candidates = Arrays.copyOf(lists[0].slots, lists[0].size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            count = intersect(candidates, count, lists[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            int slot = candidates[i];
+            if (live.get(slot) && texts[slot].contains(q)) {
+                matches.set(ids[slot]);
+            }
+        }
+        return matches;
+    }
+    
+    private void index(int slot, String text) {
+        for (int n = 1; n <= MAX_GRAM; n++) {
+            for (int i = 0; i + n <= text.length(); i++) {
+                postings.getOrCreate(key(text, i, n)).add(slot);
+            }
+        }
+    }
+    
+    private void compact() {
+        int[] oldIds = ids;
+        String[] oldTexts = texts;
+        int oldSize = size;
+        
+        postings = new GramTable();
+        live = new BitSet();
+        slots.clear();
+        ids = new int[Math.max(64, oldSize - dead)];
+        texts = new String[ids.length];
+        size = 0;
+        dead = 0;
+        for (int slot = 0; slot < oldSize; slot++) {
+            if (oldTexts[slot] != null) {
+                int fresh = size++;
+                ids[fresh] = oldIds[slot];
+                texts[fresh] = oldTexts[slot];
+                live.set(fresh);
+                slots.put(oldIds[slot], fresh);
+                index(fresh, oldTexts[slot]);
+            }
+        }
+    }
+    
+    private static int intersect(int[] candidates, int count, Postings other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < other.size; i++) {
+            int slot = candidates[i];
+            while (j < other.size && other.slots[j] < slot) {
+                j++;
+            }
+            if (j < other.size && other.slots[j] == slot) {
+                candidates[kept++] = slot;
+            }
+        }
+        return kept;
+    }
+    
+    private static long key(String text, int offset, int length) {
+        long key = length;
+        for (int i = 0; i < length; i++) {
+            key = (key << 16) | text.charAt(offset + i);
+        }
+        return key;
+    }
+    
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static class GramTable {
+        private long[] keys = new long[1024];
+        private Postings[] values = new Postings[1024];
+        private int size;
+        
+        Postings get(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+        
+        Postings getOrCreate(long key) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            for (; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            Postings created = new Postings();
+            keys[i] = key;
+            values[i] = created;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+            return created;
+        }
+        
+        private void grow() {
+            long[] oldKeys = keys;
+            Postings[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Postings[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldValues[j] != null) {
+                    int i = mix(oldKeys[j]) & mask;
+                    while (values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+        
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+    
+    private static class Postings {
+        int[] slots = new int[4];
+        int size;
+        
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
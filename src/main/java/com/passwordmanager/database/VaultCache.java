@@ -0,0 +1,268 @@
+package com.passwordmanager.database;
+
+import com.passwordmanager.crypto.SecretCache;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class VaultCache {
+    private static final Map<Integer, UserVault> vaults = new ConcurrentHashMap<>();
+    private static final AtomicLong writes = new AtomicLong();
+    private static final AtomicInteger pendingWrites = new AtomicInteger();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+    // Keeps summary reads off the writer thread; a single thread applies results in the order the writer finished them.
+    private static final ExecutorService APPLIER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "vault-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private static volatile long idleTimeoutMillis = Long.getLong("pm.cache.idleTimeoutMillis", 15 * 60 * 1000L);
+    private static volatile int maxUsers = Integer.getInteger("pm.cache.maxUsers", 8);
+    
+    public static List<DatabaseManager.PasswordSummary> getResidentSummaries(int userId) {
+        expireIdle();
+        UserVault vault = vaults.get(userId);
+        if (vault == null) {
+            return null;
+        }
+        hits.incrementAndGet();
+        return vault.snapshot();
+    }
+    
+    public static List<DatabaseManager.PasswordSummary> getUserSummaries(int userId) {
+        List<DatabaseManager.PasswordSummary> resident = getResidentSummaries(userId);
+        if (resident != null) {
+            return resident;
+        }
+        
+        misses.incrementAndGet();
+        long writesBefore = writes.get();
+        boolean quiet = pendingWrites.get() == 0;
+        List<DatabaseManager.PasswordSummary> entries = DatabaseManager.getUserPasswordSummaries(userId);
+        if (quiet && writes.get() == writesBefore) {
+            UserVault loaded = new UserVault(entries);
+            vaults.put(userId, loaded);
+            // A write that began after the check may have skipped the vault before it was installed.
+            if (writes.get() != writesBefore) {
+                vaults.remove(userId, loaded);
+            } else {
+                enforceMaxUsers();
+            }
+        }
+        return List.copyOf(entries);
+    }
+    
+    public static BitSet search(int userId, String query) {
+        UserVault vault = vaults.get(userId);
+        return vault == null ? null : vault.search(query);
+    }
+    
+    public static CompletableFuture<DatabaseManager.PasswordSummary> savePassword(
+            int userId, String serviceName, String username, String password, String encryptionType) {
+        beginWrite();
+        return endWrite(DatabaseWriter.savePassword(userId, serviceName, username, password, encryptionType)
+                .thenApplyAsync(id -> {
+                    DatabaseManager.PasswordSummary summary = DatabaseManager.getPasswordSummaryById(userId, id);
+                    UserVault vault = vaults.get(userId);
+                    if (vault != null && summary != null) {
+                        vault.insert(summary);
+                    }
+                    return summary;
+                }, APPLIER));
+    }
+    
+    public static CompletableFuture<DatabaseManager.PasswordSummary> updatePassword(
+            int userId, int passwordId, String password, String encryptionType) {
+        beginWrite();
+        SecretCache.invalidate(userId, passwordId);
+        return endWrite(DatabaseWriter.updatePassword(passwordId, password, encryptionType)
+                .thenApplyAsync(ignored -> {
+                    DatabaseManager.PasswordSummary summary =
+                            DatabaseManager.getPasswordSummaryById(userId, passwordId);
+                    UserVault vault = vaults.get(userId);
+                    if (vault != null && summary != null) {
+                        vault.replace(summary);
+                    }
+                    return summary;
+                }, APPLIER));
+    }
+    
+    public static CompletableFuture<Integer> deletePassword(int userId, int passwordId) {
+        beginWrite();
+        SecretCache.invalidate(userId, passwordId);
+        return endWrite(DatabaseWriter.deletePassword(passwordId)
+                .thenApplyAsync(ignored -> {
+                    UserVault vault = vaults.get(userId);
+                    if (vault != null) {
+                        vault.remove(passwordId);
+                    }
+                    return passwordId;
+                }, APPLIER));
+    }
+    
+    static void invalidate(int userId) {
+        writes.incrementAndGet();
+        evict(userId);
+    }
+    
+    public static void evict(int userId) {
+        if (vaults.remove(userId) != null) {
+            evictions.incrementAndGet();
+        }
+    }
+    
+    public static void clear() {
+        evictions.addAndGet(vaults.size());
+        vaults.clear();
+    }
+    
+    public static void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        VaultCache.idleTimeoutMillis = idleTimeoutMillis;
+    }
+    
+    public static void setMaxUsers(int maxUsers) {
+        if (maxUsers < 1) {
+            throw new IllegalArgumentException("Max users must be at least 1");
+        }
+        VaultCache.maxUsers = maxUsers;
+        enforceMaxUsers();
+    }
+    
+    public static Stats getStats() {
+        return new Stats(vaults.size(), hits.get(), misses.get(), evictions.get());
+    }
+    
+    // A load only installs a vault when no write was in flight when it started and none began before the install;
+    // every other write applies itself to whatever vault is resident once it completes.
+    private static void beginWrite() {
+        pendingWrites.incrementAndGet();
+        writes.incrementAndGet();
+    }
+    
+    private static <T> CompletableFuture<T> endWrite(CompletableFuture<T> applied) {
+        return applied.whenComplete((result, error) -> pendingWrites.decrementAndGet());
+    }
+    
+    private static void expireIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        vaults.entrySet().removeIf(e -> {
+            if (e.getValue().lastAccess < cutoff) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+    
+    private static void enforceMaxUsers() {
+        while (vaults.size() > maxUsers) {
+            Integer oldest = null;
+            long oldestAccess = Long.MAX_VALUE;
+            for (Map.Entry<Integer, UserVault> e : vaults.entrySet()) {
+                if (e.getValue().lastAccess < oldestAccess) {
+                    oldestAccess = e.getValue().lastAccess;
+                    oldest = e.getKey();
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            evict(oldest);
+        }
+    }
+    
+    private static class UserVault {
+        private final TreeSet<DatabaseManager.PasswordSummary> listing =
+                new TreeSet<>(DatabaseManager.PasswordSummary.LISTING_ORDER);
+        private final Map<Integer, DatabaseManager.PasswordSummary> byId;
+        private final SubstringIndex index = new SubstringIndex();
+        private volatile long lastAccess = System.currentTimeMillis();
+        
+        UserVault(List<DatabaseManager.PasswordSummary> entries) {
+            byId = new HashMap<>(entries.size() * 2);
+            for (DatabaseManager.PasswordSummary entry : entries) {
+                byId.put(entry.id, entry);
+                listing.add(entry);
+                index.add(entry.id, entry.serviceName, entry.username);
+            }
+        }
+        
+        synchronized List<DatabaseManager.PasswordSummary> snapshot() {
+            lastAccess = System.currentTimeMillis();
+            return Collections.unmodifiableList(new ArrayList<>(listing));
+        }
+        
+        synchronized BitSet search(String query) {
+            lastAccess = System.currentTimeMillis();
+            return index.search(query);
+        }
+        
+        synchronized void insert(DatabaseManager.PasswordSummary entry) {
+            DatabaseManager.PasswordSummary previous = byId.put(entry.id, entry);
+            if (previous != null) {
+                listing.remove(previous);
+            }
+            listing.add(entry);
+            index.add(entry.id, entry.serviceName, entry.username);
+        }
+        
+        synchronized void replace(DatabaseManager.PasswordSummary updated) {
+            DatabaseManager.PasswordSummary previous = byId.replace(updated.id, updated);
+            if (previous != null) {
+                listing.remove(previous);
+                listing.add(updated);
+                index.add(updated.id, updated.serviceName, updated.username);
+            }
+        }
+        
+        synchronized void remove(int id) {
+            DatabaseManager.PasswordSummary previous = byId.remove(id);
+            if (previous != null) {
+                listing.remove(previous);
+                index.remove(id);
+            }
+        }
+    }
+    
+    public static class Stats {
+        public final int residentUsers;
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        
+        public Stats(int residentUsers, long hits, long misses, long evictions) {
+            this.residentUsers = residentUsers;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+        
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+        
+        @Override
+        public String toString() {
+            return "residentUsers=" + residentUsers +
+                    ", hits=" + hits +
+                    ", misses=" + misses +
+                    ", evictions=" + evictions +
+                    ", hitRate=" + String.format("%.2f", hitRate());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.passwordmanager.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class CsvRecordReader implements RecordReader {
+    private final BufferedReader reader;
+    private final List<String> header;
+    private final StringBuilder field = new StringBuilder();
+    
+    CsvRecordReader(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        List<String> columns = readRow();
+        if (columns == null) {
+            throw new IOException("CSV file is empty");
+        }
+        header = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            header.add(column.replace("\uFEFF", "").trim().toLowerCase());
+        }
+    }
+    
+    @Override
+    public Map<String, String> next() throws IOException {
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isEmpty());
+        
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < header.size() && i < row.size(); i++) {
+            record.put(header.get(i), row.get(i));
+        }
+        return record;
+    }
+    
+    private List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        
+        List<String> row = new ArrayList<>();
+        boolean quoted = false;
+        field.setLength(0);
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field in CSV");
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == -1 || c == '\n') {
+                row.add(field.toString());
+                return row;
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                row.add(field.toString());
+                return row;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
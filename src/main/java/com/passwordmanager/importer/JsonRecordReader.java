@@ -0,0 +1,228 @@
+package com.passwordmanager.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+class JsonRecordReader implements RecordReader {
+    private static final Set<String> RECORD_ARRAY_KEYS = Set.of("items", "entries", "passwords", "logins", "records");
+    
+    private final Reader reader;
+    private final StringBuilder buffer = new StringBuilder();
+    private int peeked = -2;
+    private boolean inRecords;
+    private boolean finished;
+    
+    JsonRecordReader(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+        int c = skipWhitespace();
+        if (c == '\uFEFF') {
+            read();
+            c = skipWhitespace();
+        }
+        
+        if (c == '[') {
+            read();
+            inRecords = true;
+        } else if (c == '{') {
+            read();
+            inRecords = seekRecordArray();
+        } else {
+            throw new IOException("Expected a JSON array or object");
+        }
+        finished = !inRecords;
+    }
+    
+    private boolean seekRecordArray() throws IOException {
+        while (true) {
+            int c = skipWhitespace();
+            if (c == '}') {
+                read();
+                return false;
+            }
+            if (c == ',') {
+                read();
+                continue;
+            }
+            String key = readString().toLowerCase();
+            expect(':');
+            if (RECORD_ARRAY_KEYS.contains(key) && skipWhitespace() == '[') {
+                read();
+                return true;
+            }
+            skipValue();
+        }
+    }
+    
+    @Override
+    public Map<String, String> next() throws IOException {
+        while (!finished) {
+            int c = skipWhitespace();
+            if (c == ']') {
+                read();
+                finished = true;
+            } else if (c == ',') {
+                read();
+            } else if (c == '{') {
+                read();
+                Map<String, String> record = new HashMap<>();
+                readObject("", record);
+                return record;
+            } else {
+                skipValue();
+            }
+        }
+        return null;
+    }
+    
+    private void readObject(String prefix, Map<String, String> record) throws IOException {
+        while (true) {
+            int c = skipWhitespace();
+            if (c == '}') {
+                read();
+                return;
+            }
+            if (c == ',') {
+                read();
+                continue;
+            }
+            
+            String key = prefix + readString().toLowerCase();
+            expect(':');
+            c = skipWhitespace();
+            if (c == '"') {
+                record.put(key, readString());
+            } else if (c == '{') {
+                read();
+                readObject(key + ".", record);
+            } else if (c == '[') {
+                skipValue();
+            } else {
+                String literal = readLiteral();
+                if (!literal.equals("null")) {
+                    record.put(key, literal);
+                }
+            }
+        }
+    }
+    
+    private void skipValue() throws IOException {
+        int c = skipWhitespace();
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            read();
+            int depth = 1;
+            while (depth > 0) {
+                c = skipWhitespace();
+                if (c == '"') {
+                    readString();
+                    continue;
+                }
+                read();
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                } else if (c == -1) {
+                    throw new IOException("Unexpected end of JSON input");
+                }
+            }
+        } else {
+            readLiteral();
+        }
+    }
+    
+    private String readString() throws IOException {
+        expect('"');
+        buffer.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Unterminated JSON string");
+            }
+            if (c == '"') {
+                return buffer.toString();
+            }
+            if (c != '\\') {
+                buffer.append((char) c);
+                continue;
+            }
+            
+            c = read();
+            switch (c) {
+                case '"', '\\', '/' -> buffer.append((char) c);
+                case 'b' -> buffer.append('\b');
+                case 'f' -> buffer.append('\f');
+                case 'n' -> buffer.append('\n');
+                case 'r' -> buffer.append('\r');
+                case 't' -> buffer.append('\t');
+                case 'u' -> {
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) {
+                            throw new IOException("Invalid unicode escape in JSON string");
+                        }
+                        code = (code << 4) | digit;
+                    }
+                    buffer.append((char) code);
+                }
+                default -> throw new IOException("Invalid escape in JSON string");
+            }
+        }
+    }
+    
+    private String readLiteral() throws IOException {
+        buffer.setLength(0);
+        while (true) {
+            int c = peek();
+            if (c == -1 || c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                break;
+            }
+            buffer.append((char) read());
+        }
+        if (buffer.length() == 0) {
+            throw new IOException("Unexpected character in JSON input");
+        }
+        return buffer.toString();
+    }
+    
+    private void expect(char expected) throws IOException {
+        int c = skipWhitespace();
+        if (c != expected) {
+            throw new IOException("Expected '" + expected + "' in JSON input");
+        }
+        read();
+    }
+    
+    private int skipWhitespace() throws IOException {
+        int c = peek();
+        while (c != -1 && Character.isWhitespace(c)) {
+            read();
+            c = peek();
+        }
+        return c;
+    }
+    
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+    
+    private int read() throws IOException {
+        int c = peek();
+        peeked = -2;
+        return c;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
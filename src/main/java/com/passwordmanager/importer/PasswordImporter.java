@@ -0,0 +1,148 @@
+package com.passwordmanager.importer;
+
+import com.passwordmanager.crypto.BulkCryptoEngine;
+import com.passwordmanager.crypto.Codec;
+import com.passwordmanager.crypto.CodecRegistry;
+import com.passwordmanager.crypto.EncryptionManager;
+import com.passwordmanager.database.DatabaseManager;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class PasswordImporter {
+    public enum Format {
+        CSV,
+        JSON;
+        
+        public static Format detect(Path file) {
+            String name = file.getFileName().toString().toLowerCase();
+            return name.endsWith(".json") ? JSON : CSV;
+        }
+    }
+    
+    public interface ProgressListener {
+        void onProgress(int imported, int skipped);
+    }
+    
+    private static final String[] SERVICE_KEYS = {"service", "service_name", "name", "title", "url", "login_uri"};
+    private static final String[] USERNAME_KEYS = {"username", "login", "user", "email", "login.username", "login_username"};
+    private static final String[] PASSWORD_KEYS = {"password", "login.password", "login_password"};
+    
+    private final Codec codec;
+    private final int chunkSize;
+    
+    public PasswordImporter(EncryptionManager.EncryptionType encryptionType) {
+        this(CodecRegistry.get(encryptionType));
+    }
+    
+    public PasswordImporter(EncryptionManager.EncryptionType encryptionType, int chunkSize) {
+        this(CodecRegistry.get(encryptionType), chunkSize);
+    }
+    
+    public PasswordImporter(Codec codec) {
+        this(codec, DatabaseManager.DEFAULT_BATCH_SIZE);
+    }
+    
+    public PasswordImporter(Codec codec, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.codec = codec;
+        this.chunkSize = chunkSize;
+    }
+    
+    public ImportResult importFile(int userId, Path file, ProgressListener listener) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(userId, reader, Format.detect(file), listener);
+        }
+    }
+    
+    public ImportResult importFrom(int userId, Reader reader, Format format,
+                                   ProgressListener listener) throws IOException {
+        try (RecordReader records = format == Format.JSON
+                ? new JsonRecordReader(reader)
+                : new CsvRecordReader(reader)) {
+            return run(userId, records, listener);
+        }
+    }
+    
+    private ImportResult run(int userId, RecordReader records, ProgressListener listener) throws IOException {
+        List<String[]> pending = new ArrayList<>(chunkSize);
+        int[] counts = new int[2];
+        
+        Map<String, String> record;
+        while ((record = records.next()) != null) {
+            String serviceName = first(record, SERVICE_KEYS);
+            String password = first(record, PASSWORD_KEYS);
+            if (serviceName == null || serviceName.isBlank() || password == null || password.isEmpty()) {
+                counts[1]++;
+                continue;
+            }
+            
+            String username = first(record, USERNAME_KEYS);
+            pending.add(new String[] {serviceName.trim(), username == null ? "" : username.trim(), password});
+            
+            if (pending.size() == chunkSize) {
+                flush(userId, pending, counts);
+                if (listener != null) {
+                    listener.onProgress(counts[0], counts[1]);
+                }
+            }
+        }
+        
+        if (!pending.isEmpty()) {
+            flush(userId, pending, counts);
+        }
+        if (listener != null) {
+            listener.onProgress(counts[0], counts[1]);
+        }
+        return new ImportResult(counts[0], counts[1]);
+    }
+    
+    private void flush(int userId, List<String[]> pending, int[] counts) {
+        List<String> plaintexts = new ArrayList<>(pending.size());
+        for (String[] row : pending) {
+            plaintexts.add(row[2]);
+        }
+        BulkCryptoEngine.BatchResult encrypted = BulkCryptoEngine.shared().encrypt(plaintexts, codec);
+        
+        List<DatabaseManager.NewPassword> chunk = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            String value = encrypted.values.get(i);
+            if (value == null) {
+                counts[1]++;
+                continue;
+            }
+            String[] row = pending.get(i);
+            chunk.add(new DatabaseManager.NewPassword(row[0], row[1], value, codec.id()));
+        }
+        counts[0] += DatabaseManager.savePasswords(userId, chunk, chunkSize);
+        pending.clear();
+    }
+    
+    private static String first(Map<String, String> record, String[] keys) {
+        for (String key : keys) {
+            String value = record.get(key);
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return null;
+    }
+    
+    public static class ImportResult {
+        public final int imported;
+        public final int skipped;
+        
+        public ImportResult(int imported, int skipped) {
+            this.imported = imported;
+            this.skipped = skipped;
+        }
+    }
+}
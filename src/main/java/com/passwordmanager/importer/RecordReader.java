@@ -0,0 +1,9 @@
+package com.passwordmanager.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+interface RecordReader extends Closeable {
+    Map<String, String> next() throws IOException;
+}
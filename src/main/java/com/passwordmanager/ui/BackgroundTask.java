@@ -0,0 +1,150 @@
+package com.passwordmanager.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+public class BackgroundTask<T> extends SwingWorker<T, Integer> {
+    public interface Work<T> {
+        T call(IntConsumer progress) throws Exception;
+    }
+    
+    private static final Map<String, BackgroundTask<?>> running = new HashMap<>();
+    private static final Map<JRootPane, Integer> busyRoots = new HashMap<>();
+    
+    private final String key;
+    private final Component owner;
+    private final Work<T> work;
+    private Consumer<T> onSuccess = result -> { };
+    private IntConsumer onProgress = value -> { };
+    private Runnable onCancel = () -> { };
+    private Consumer<Throwable> onError;
+    private JComponent[] disabled = new JComponent[0];
+    private JRootPane busyRoot;
+    
+    public BackgroundTask(String key, Component owner, Callable<T> work) {
+        this(key, owner, progress -> work.call());
+    }
+    
+    public BackgroundTask(String key, Component owner, Work<T> work) {
+        this.key = key;
+        this.owner = owner;
+        this.work = work;
+        this.onError = error -> JOptionPane.showMessageDialog(owner, "Error: " + error.getMessage());
+    }
+    
+    public BackgroundTask<T> onSuccess(Consumer<T> onSuccess) {
+        this.onSuccess = onSuccess;
+        return this;
+    }
+    
+    public BackgroundTask<T> onError(Consumer<Throwable> onError) {
+        this.onError = onError;
+        return this;
+    }
+    
+    public BackgroundTask<T> onProgress(IntConsumer onProgress) {
+        this.onProgress = onProgress;
+        return this;
+    }
+    
+    // Runs on the event dispatch thread when the task is cancelled by key, for work that has its own stop signal.
+    public BackgroundTask<T> onCancel(Runnable onCancel) {
+        this.onCancel = onCancel;
+        return this;
+    }
+    
+    public BackgroundTask<T> disabling(JComponent... components) {
+        this.disabled = components;
+        return this;
+    }
+    
+    public BackgroundTask<T> start() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException("Background tasks must be started on the event dispatch thread");
+        }
+        if (key != null) {
+            BackgroundTask<?> superseded = running.put(key, this);
+            if (superseded != null) {
+                superseded.abort();
+            }
+        }
+        for (JComponent component : disabled) {
+            component.setEnabled(false);
+        }
+        busyRoot = SwingUtilities.getRootPane(owner);
+        if (busyRoot != null && busyRoots.merge(busyRoot, 1, Integer::sum) == 1) {
+            busyRoot.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        }
+        execute();
+        return this;
+    }
+    
+    public static void cancel(String key) {
+        BackgroundTask<?> task = running.remove(key);
+        if (task != null) {
+            task.abort();
+        }
+    }
+    
+    private void abort() {
+        cancel(false);
+        onCancel.run();
+    }
+    
+    @Override
+    protected T doInBackground() throws Exception {
+        return work.call(this::publish);
+    }
+    
+    @Override
+    protected void process(List<Integer> chunks) {
+        if (!isCancelled()) {
+            onProgress.accept(chunks.get(chunks.size() - 1));
+        }
+    }
+    
+    @Override
+    protected void done() {
+        if (key != null) {
+            running.remove(key, this);
+        }
+        for (JComponent component : disabled) {
+            component.setEnabled(true);
+        }
+        if (busyRoot != null && busyRoots.merge(busyRoot, -1, Integer::sum) == 0) {
+            busyRoots.remove(busyRoot);
+            busyRoot.setCursor(Cursor.getDefaultCursor());
+        }
+        if (isCancelled()) {
+            return;
+        }
+        
+        T result;
+        try {
+            result = get();
+        } catch (InterruptedException | CancellationException e) {
+            return;
+        } catch (ExecutionException e) {
+            onError.accept(unwrap(e));
+            return;
+        }
+        onSuccess.accept(result);
+    }
+    
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof ExecutionException || error instanceof CompletionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
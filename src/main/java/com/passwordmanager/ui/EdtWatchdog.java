@@ -0,0 +1,73 @@
+package com.passwordmanager.ui;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+
+public class EdtWatchdog implements Runnable {
+    private static final Logger log = LoggerFactory.getLogger(EdtWatchdog.class);
+    
+    private final long thresholdMillis;
+    private volatile boolean answered;
+    private volatile Thread edt;
+    
+    public EdtWatchdog(long thresholdMillis) {
+        if (thresholdMillis < 1) {
+            throw new IllegalArgumentException("Stall threshold must be positive");
+        }
+        this.thresholdMillis = thresholdMillis;
+    }
+    
+    public static void start() {
+        long threshold = Long.getLong("pm.ui.stallMillis", 200);
+        if (threshold <= 0) {
+            return;
+        }
+        Thread thread = new Thread(new EdtWatchdog(threshold), "edt-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public void run() {
+        long pollMillis = Math.max(1, thresholdMillis / 4);
+        try {
+            while (true) {
+                answered = false;
+                long posted = System.nanoTime();
+                SwingUtilities.invokeLater(() -> {
+                    edt = Thread.currentThread();
+                    answered = true;
+                });
+                
+                boolean reported = false;
+                while (!answered) {
+                    Thread.sleep(pollMillis);
+                    long blockedMillis = (System.nanoTime() - posted) / 1_000_000;
+                    if (!reported && blockedMillis >= thresholdMillis) {
+                        log.warn("EDT blocked for {} ms at:{}", blockedMillis, stackOf(edt));
+                        reported = true;
+                    }
+                }
+                if (reported) {
+                    log.warn("EDT stall ended after {} ms", (System.nanoTime() - posted) / 1_000_000);
+                }
+                Thread.sleep(thresholdMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static String stackOf(Thread thread) {
+        if (thread == null) {
+            return " (event dispatch thread not yet seen)";
+        }
+        StringBuilder trace = new StringBuilder();
+        for (StackTraceElement element : thread.getStackTrace()) {
+            trace.append(System.lineSeparator()).append("    at ").append(element);
+        }
+        return trace.toString();
+    }
+}
@@ -81,26 +81,31 @@ public class LoginPanel extends JPanel {
     
     private void handleLogin(ActionEvent e) {
         String username = usernameField.getText().trim();
-        String password = new String(passwordField.getPassword());
+        char[] password = passwordField.getPassword();
         
-        if (username.isEmpty() || password.isEmpty()) {
+        if (username.isEmpty() || password.length == 0) {
+            EncryptionManager.wipe(password);
             errorLabel.setText("Fill in all fields!");
             return;
         }
         
-        String passwordHash = EncryptionManager.encryptMD5(password);
-        
-        try {
-            Integer userId = DatabaseManager.authenticateUser(username, passwordHash);
+        errorLabel.setText("");
+        new BackgroundTask<>("login", this, () -> {
+            try {
+                app.awaitDatabase();
+                return DatabaseManager.authenticateUser(username, password);
+            } finally {
+                EncryptionManager.wipe(password);
+            }
+        }).onSuccess(userId -> {
             if (userId != null) {
-                errorLabel.setText("");
                 app.showMainPanel(userId);
             } else {
                 errorLabel.setText("Invalid username or password!");
             }
-        } catch (Exception ex) {
-            errorLabel.setText("Error: " + ex.getMessage());
-        }
+        }).onError(error -> errorLabel.setText("Error: " + error.getMessage()))
+                .disabling(loginButton, registerButton)
+                .start();
     }
     
     public void clear() {
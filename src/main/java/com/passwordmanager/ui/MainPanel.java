@@ -1,24 +1,47 @@
 package com.passwordmanager.ui;
 
 import com.passwordmanager.database.DatabaseManager;
+import com.passwordmanager.database.ReEncryptionJob;
+import com.passwordmanager.database.VaultCache;
+import com.passwordmanager.crypto.Codec;
+import com.passwordmanager.crypto.CodecRegistry;
 import com.passwordmanager.crypto.EncryptionManager;
+import com.passwordmanager.crypto.SecretCache;
+import com.passwordmanager.importer.PasswordImporter;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 public class MainPanel extends JPanel {
-    private int currentUserId;
+    private static final int SEARCH_LIMIT = 200;
+    private static final int SEARCH_DELAY_MILLIS = 150;
+    private static final int RESIDENT_LIMIT = Integer.getInteger("pm.ui.residentLimit", 50_000);
+    private static final String[] USER_TASKS = {"vault", "search", "reveal", "edit", "import", "reencrypt"};
+    
+    private volatile int currentUserId;
     private JTable passwordsTable;
-    private DefaultTableModel tableModel;
+    private PasswordTableModel tableModel;
+    private TableRowSorter<PasswordTableModel> sorter;
     private PasswordManagerApplication app;
     private JButton addButton;
     private JButton editButton;
     private JButton deleteButton;
+    private JButton importButton;
+    private JButton reencryptButton;
     private JButton logoutButton;
     private JButton showPasswordButton;
     private JLabel userLabel;
+    private JTextField searchField;
+    private Timer searchTimer;
+    private ReEncryptionJob reencryptJob;
     
     public MainPanel(PasswordManagerApplication app) {
         this.app = app;
@@ -37,6 +60,38 @@ public class MainPanel extends JPanel {
         userLabel.setFont(new Font("Arial", Font.PLAIN, 14));
         topPanel.add(userLabel, BorderLayout.WEST);
         
+        searchField = new JTextField();
+        searchField.putClientProperty("JTextField.placeholderText", "Search by service or login");
+        searchTimer = new Timer(SEARCH_DELAY_MILLIS, e -> {
+            if (searchField.getText().trim().isEmpty()) {
+                loadPasswords();
+            } else {
+                searchDatabase();
+            }
+        });
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                onQueryChanged();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                onQueryChanged();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                onQueryChanged();
+            }
+        });
+        JPanel searchPanel = new JPanel(new BorderLayout());
+        searchPanel.setOpaque(false);
+        searchPanel.setBorder(BorderFactory.createEmptyBorder(0, 20, 0, 20));
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        topPanel.add(searchPanel, BorderLayout.CENTER);
+        
         logoutButton = new JButton("Logout");
         logoutButton.addActionListener(e -> handleLogout());
         topPanel.add(logoutButton, BorderLayout.EAST);
@@ -47,18 +102,19 @@ public class MainPanel extends JPanel {
         centerPanel.setBackground(new Color(45, 45, 48));
         centerPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         
-        String[] columnNames = {"Service", "Login", "Password", "Encryption", "ID"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new PasswordTableModel();
+        tableModel.setErrorHandler(error ->
+                JOptionPane.showMessageDialog(this, "Error loading passwords: " + error.getMessage()));
         passwordsTable = new JTable(tableModel);
+        sorter = new TableRowSorter<>(tableModel);
+        for (int column = 0; column < tableModel.getColumnCount(); column++) {
+            sorter.setSortable(column, false);
+        }
+        passwordsTable.setRowSorter(sorter);
         passwordsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        passwordsTable.getColumnModel().getColumn(4).setMaxWidth(0);
-        passwordsTable.getColumnModel().getColumn(4).setMinWidth(0);
-        passwordsTable.getColumnModel().getColumn(4).setPreferredWidth(0);
+        passwordsTable.getColumnModel().getColumn(PasswordTableModel.ID_COLUMN).setMaxWidth(0);
+        passwordsTable.getColumnModel().getColumn(PasswordTableModel.ID_COLUMN).setMinWidth(0);
+        passwordsTable.getColumnModel().getColumn(PasswordTableModel.ID_COLUMN).setPreferredWidth(0);
         
         JScrollPane scrollPane = new JScrollPane(passwordsTable);
         centerPanel.add(scrollPane, BorderLayout.CENTER);
@@ -84,31 +140,128 @@ public class MainPanel extends JPanel {
         deleteButton.addActionListener(e -> deletePassword());
         bottomPanel.add(deleteButton);
         
+        importButton = new JButton("Import");
+        importButton.addActionListener(e -> importPasswords());
+        bottomPanel.add(importButton);
+        
+        reencryptButton = new JButton("Re-encrypt All");
+        reencryptButton.addActionListener(e -> {
+            if (reencryptJob != null) {
+                reencryptJob.cancel();
+                reencryptButton.setEnabled(false);
+            } else {
+                reencryptPasswords();
+            }
+        });
+        bottomPanel.add(reencryptButton);
+        
         add(bottomPanel, BorderLayout.SOUTH);
     }
     
     public void setUserId(int userId) {
         this.currentUserId = userId;
         userLabel.setText("User ID: " + userId);
+        searchField.setText("");
+        searchTimer.stop();
     }
     
     public void loadPasswords() {
-        tableModel.setRowCount(0);
-        try {
-            List<DatabaseManager.PasswordEntry> passwords = DatabaseManager.getUserPasswords(currentUserId);
-            for (DatabaseManager.PasswordEntry entry : passwords) {
-                Object[] row = {
-                        entry.serviceName,
-                        entry.username,
-                        "***",
-                        entry.encryptionType,
-                        entry.id
-                };
-                tableModel.addRow(row);
+        int userId = currentUserId;
+        new BackgroundTask<>("vault", this, () -> {
+            List<DatabaseManager.PasswordSummary> resident = VaultCache.getResidentSummaries(userId);
+            if (resident != null) {
+                return resident;
+            }
+            if (DatabaseManager.countUserPasswords(userId) > RESIDENT_LIMIT) {
+                return null;
+            }
+            List<DatabaseManager.PasswordSummary> loaded = VaultCache.getUserSummaries(userId);
+            // Logout may have evicted the vault while it loaded; don't leave it resident for a signed-out user.
+            if (userId != currentUserId) {
+                VaultCache.evict(userId);
+            }
+            return loaded;
+        }).onSuccess(entries -> {
+            if (userId != currentUserId) {
+                return;
             }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error loading passwords: " + ex.getMessage());
+            if (entries == null) {
+                searchDatabase();
+                return;
+            }
+            BackgroundTask.cancel("search");
+            tableModel.showResident(entries);
+            applyFilter();
+        }).onError(error -> JOptionPane.showMessageDialog(this, "Error loading passwords: " + error.getMessage()))
+                .start();
+    }
+    
+    public void passwordSaved(DatabaseManager.PasswordSummary summary, boolean created) {
+        if (summary == null) {
+            loadPasswords();
+            return;
+        }
+        boolean applied = created ? tableModel.insertRow(summary) : tableModel.updateRow(summary);
+        if (!applied) {
+            loadPasswords();
+        } else if (tableModel.isResident()) {
+            applyFilter();
+        }
+    }
+    
+    public void passwordDeleted(int passwordId) {
+        if (!tableModel.removeRow(passwordId)) {
+            loadPasswords();
+        }
+    }
+    
+    private void onQueryChanged() {
+        if (tableModel.isResident()) {
+            searchTimer.stop();
+            applyFilter();
+        } else {
+            searchTimer.restart();
+        }
+    }
+    
+    private void applyFilter() {
+        String query = searchField.getText().trim();
+        if (query.isEmpty()) {
+            sorter.setRowFilter(null);
+            return;
+        }
+        BitSet matches = VaultCache.search(currentUserId, query);
+        if (matches == null) {
+            searchDatabase();
+            return;
+        }
+        sorter.setRowFilter(new RowFilter<>() {
+            @Override
+            public boolean include(Entry<? extends PasswordTableModel, ? extends Integer> entry) {
+                int passwordId = tableModel.getPasswordId(entry.getIdentifier());
+                return passwordId >= 0 && matches.get(passwordId);
+            }
+        });
+    }
+    
+    private void searchDatabase() {
+        String query = searchField.getText().trim();
+        int userId = currentUserId;
+        sorter.setRowFilter(null);
+        if (query.isEmpty()) {
+            BackgroundTask.cancel("search");
+            tableModel.showVault(userId);
+            return;
         }
+        new BackgroundTask<>("search", this, () ->
+                DatabaseManager.searchPasswordsBySubstring(userId, query, SEARCH_LIMIT))
+                .onSuccess(results -> {
+                    if (userId == currentUserId) {
+                        tableModel.showResults(results);
+                    }
+                })
+                .onError(error -> JOptionPane.showMessageDialog(this, "Error loading passwords: " + error.getMessage()))
+                .start();
     }
     
     private void showPassword() {
@@ -118,35 +271,57 @@ public class MainPanel extends JPanel {
             return;
         }
         
-        try {
-            int passwordId = (Integer) tableModel.getValueAt(selectedRow, 4);
-            List<DatabaseManager.PasswordEntry> passwords = DatabaseManager.getUserPasswords(currentUserId);
+        int userId = currentUserId;
+        int passwordId = tableModel.getPasswordId(passwordsTable.convertRowIndexToModel(selectedRow));
+        new BackgroundTask<>("reveal", this, () -> {
+            DatabaseManager.PasswordEntry entry = DatabaseManager.getPasswordById(userId, passwordId);
+            if (entry == null) {
+                return null;
+            }
+            Codec codec = CodecRegistry.get(entry.encryptionType);
+            char[] decrypted = codec.isReversible()
+                    ? SecretCache.reveal(userId, entry.id, entry.password, codec)
+                    : null;
+            if (userId != currentUserId) {
+                SecretCache.evictUser(userId);
+            }
+            return new RevealedPassword(entry, codec, decrypted);
+        }).onSuccess(revealed -> {
+            if (userId != currentUserId) {
+                if (revealed != null) {
+                    EncryptionManager.wipe(revealed.password);
+                }
+                return;
+            }
+            if (revealed == null) {
+                JOptionPane.showMessageDialog(this, "Password not found!");
+                return;
+            }
             
-            for (DatabaseManager.PasswordEntry entry : passwords) {
-                if (entry.id == passwordId) {
-                    EncryptionManager.EncryptionType type = 
-                            EncryptionManager.EncryptionType.valueOf(entry.encryptionType);
-                    
-                    String decryptedPassword;
-                    if (EncryptionManager.isReversible(type)) {
-                        decryptedPassword = EncryptionManager.decrypt(entry.password, type);
-                    } else {
-                        decryptedPassword = "[Cannot be decrypted - " + type.getDisplayName() + "]";
-                    }
-                    
-                    JOptionPane.showMessageDialog(this, 
-                            "Service: " + entry.serviceName + "\n" +
-                            "Login: " + entry.username + "\n" +
-                            "Password: " + decryptedPassword + "\n" +
-                            "Encryption: " + entry.encryptionType,
-                            "Password Info",
-                            JOptionPane.INFORMATION_MESSAGE);
-                    break;
+            JPasswordField passwordField = new JPasswordField();
+            passwordField.setEditable(false);
+            passwordField.setEchoChar((char) 0);
+            if (revealed.password != null) {
+                try {
+                    passwordField.setText(new String(revealed.password));
+                } finally {
+                    EncryptionManager.wipe(revealed.password);
                 }
+            } else {
+                passwordField.setText("[Cannot be decrypted - " + revealed.codec.id() + "]");
             }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
-        }
+            
+            DatabaseManager.PasswordEntry entry = revealed.entry;
+            JPanel info = new JPanel(new GridLayout(0, 1, 0, 4));
+            info.add(new JLabel("Service: " + entry.serviceName));
+            info.add(new JLabel("Login: " + entry.username));
+            info.add(new JLabel("Password:"));
+            info.add(passwordField);
+            info.add(new JLabel("Encryption: " + entry.encryptionType));
+            JOptionPane.showMessageDialog(this, info, "Password Info", JOptionPane.INFORMATION_MESSAGE);
+            passwordField.setText("");
+        }).disabling(showPasswordButton)
+                .start();
     }
     
     private void showAddPasswordDialog() {
@@ -160,18 +335,21 @@ public class MainPanel extends JPanel {
             return;
         }
         
-        int passwordId = (Integer) tableModel.getValueAt(selectedRow, 4);
-        try {
-            List<DatabaseManager.PasswordEntry> passwords = DatabaseManager.getUserPasswords(currentUserId);
-            for (DatabaseManager.PasswordEntry entry : passwords) {
-                if (entry.id == passwordId) {
-                    new PasswordDialog(this, currentUserId, entry).setVisible(true);
-                    break;
-                }
-            }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
-        }
+        int userId = currentUserId;
+        int passwordId = tableModel.getPasswordId(passwordsTable.convertRowIndexToModel(selectedRow));
+        new BackgroundTask<>("edit", this, () -> DatabaseManager.getPasswordById(userId, passwordId))
+                .onSuccess(entry -> {
+                    if (userId != currentUserId) {
+                        return;
+                    }
+                    if (entry == null) {
+                        JOptionPane.showMessageDialog(this, "Password not found!");
+                        return;
+                    }
+                    new PasswordDialog(this, userId, entry).setVisible(true);
+                })
+                .disabling(editButton)
+                .start();
     }
     
     private void deletePassword() {
@@ -183,18 +361,140 @@ public class MainPanel extends JPanel {
         
         int result = JOptionPane.showConfirmDialog(this, "Are you sure?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
         if (result == JOptionPane.YES_OPTION) {
+            int passwordId = tableModel.getPasswordId(passwordsTable.convertRowIndexToModel(selectedRow));
+            if (passwordId < 0) {
+                return;
+            }
+            int userId = currentUserId;
+            new BackgroundTask<>(null, this, () -> VaultCache.deletePassword(userId, passwordId).get())
+                    .onSuccess(deletedId -> {
+                        if (userId != currentUserId) {
+                            return;
+                        }
+                        passwordDeleted(deletedId);
+                        JOptionPane.showMessageDialog(this, "Password deleted!");
+                    })
+                    .disabling(deleteButton)
+                    .start();
+        }
+    }
+    
+    private void importPasswords() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV or JSON export", "csv", "json"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        Codec codec = chooseCodec("Encrypt imported passwords with:", "Import",
+                EncryptionManager.EncryptionType.BASE64);
+        if (codec == null) {
+            return;
+        }
+        
+        Path file = chooser.getSelectedFile().toPath();
+        int userId = currentUserId;
+        new BackgroundTask<>("import", this, progress -> {
             try {
-                int passwordId = (Integer) tableModel.getValueAt(selectedRow, 4);
-                DatabaseManager.deletePassword(passwordId);
-                loadPasswords();
-                JOptionPane.showMessageDialog(this, "Password deleted!");
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
+                return new PasswordImporter(codec).importFile(userId, file,
+                        (imported, skipped) -> progress.accept(imported));
+            } finally {
+                // The importer writes around the cache, so drop it even if the UI has stopped listening.
+                VaultCache.evict(userId);
             }
+        }).onProgress(imported -> importButton.setText("Imported " + imported))
+                .onSuccess(result -> {
+                    importButton.setText("Import");
+                    if (userId != currentUserId) {
+                        return;
+                    }
+                    loadPasswords();
+                    JOptionPane.showMessageDialog(this,
+                            "Imported: " + result.imported + "\nSkipped: " + result.skipped);
+                })
+                .onError(error -> {
+                    importButton.setText("Import");
+                    JOptionPane.showMessageDialog(this, "Import error: " + error.getMessage());
+                })
+                .onCancel(() -> importButton.setText("Import"))
+                .disabling(importButton)
+                .start();
+    }
+    
+    private void reencryptPasswords() {
+        Codec codec = chooseCodec("Re-encrypt all reversible passwords with:", "Re-encrypt",
+                EncryptionManager.EncryptionType.AES_GCM);
+        if (codec == null) {
+            return;
         }
+        
+        int userId = currentUserId;
+        ReEncryptionJob job = new ReEncryptionJob(userId, codec);
+        reencryptJob = job;
+        reencryptButton.setText("Cancel Re-encrypt");
+        new BackgroundTask<>("reencrypt", this, progress -> {
+            job.setProgressListener(current -> progress.accept(current.migrated));
+            return job.run();
+        }).onProgress(migrated -> reencryptButton.setText("Cancel Re-encrypt (" + migrated + " done)"))
+                .onSuccess(result -> {
+                    reencryptFinished();
+                    if (userId != currentUserId) {
+                        return;
+                    }
+                    loadPasswords();
+                    JOptionPane.showMessageDialog(this,
+                            (result.completed ? "" : "Re-encryption cancelled\n") +
+                            "Re-encrypted: " + result.migrated +
+                            "\nChanged during migration: " + result.conflicts +
+                            "\nFailed: " + result.failed);
+                })
+                .onError(error -> {
+                    reencryptFinished();
+                    JOptionPane.showMessageDialog(this, "Re-encryption error: " + error.getMessage());
+                })
+                .onCancel(() -> {
+                    job.cancel();
+                    reencryptFinished();
+                })
+                .start();
+    }
+    
+    private void reencryptFinished() {
+        reencryptJob = null;
+        reencryptButton.setText("Re-encrypt All");
+        reencryptButton.setEnabled(true);
+    }
+    
+    private Codec chooseCodec(String message, String title, EncryptionManager.EncryptionType preferred) {
+        Codec[] codecs = CodecRegistry.reversible().toArray(new Codec[0]);
+        String[] ids = Arrays.stream(codecs).map(Codec::id).toArray(String[]::new);
+        String id = (String) JOptionPane.showInputDialog(this, message, title,
+                JOptionPane.QUESTION_MESSAGE, null, ids, preferred.name());
+        return id == null ? null : CodecRegistry.get(id);
     }
     
     private void handleLogout() {
+        int userId = currentUserId;
+        for (String key : USER_TASKS) {
+            BackgroundTask.cancel(key);
+        }
+        searchTimer.stop();
+        currentUserId = 0;
+        VaultCache.evict(userId);
+        SecretCache.evictUser(userId);
+        tableModel.clear();
         app.showLoginPanel();
     }
+    
+    private static class RevealedPassword {
+        final DatabaseManager.PasswordEntry entry;
+        final Codec codec;
+        final char[] password;
+        
+        RevealedPassword(DatabaseManager.PasswordEntry entry, Codec codec, char[] password) {
+            this.entry = entry;
+            this.codec = codec;
+            this.password = password;
+        }
+    }
 }
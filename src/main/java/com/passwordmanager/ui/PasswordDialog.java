@@ -1,7 +1,11 @@
 package com.passwordmanager.ui;
 
 import com.passwordmanager.database.DatabaseManager;
+import com.passwordmanager.database.VaultCache;
+import com.passwordmanager.crypto.Codec;
+import com.passwordmanager.crypto.CodecRegistry;
 import com.passwordmanager.crypto.EncryptionManager;
+import com.passwordmanager.crypto.SecretCache;
 
 import javax.swing.*;
 import java.awt.*;
@@ -11,7 +15,7 @@ public class PasswordDialog extends JDialog {
     private JTextField serviceNameField;
     private JTextField usernameField;
     private JPasswordField passwordField;
-    private JComboBox<EncryptionManager.EncryptionType> encryptionTypeCombo;
+    private JComboBox<String> encryptionTypeCombo;
     private JButton saveButton;
     private JButton cancelButton;
     private JLabel infoLabel;
@@ -28,7 +32,7 @@ public class PasswordDialog extends JDialog {
         this.userId = userId;
         this.editingEntry = entry;
         
-        setSize(400, 300);
+        setSize(400, 320);
         setLocationRelativeTo((Frame) SwingUtilities.getWindowAncestor(mainPanel));
         setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
         
@@ -85,8 +89,8 @@ public class PasswordDialog extends JDialog {
         gbc.weightx = 0.3;
         panel.add(encryptionLabel, gbc);
         
-        encryptionTypeCombo = new JComboBox<>(EncryptionManager.EncryptionType.values());
-        encryptionTypeCombo.setSelectedItem(EncryptionManager.EncryptionType.BASE64);
+        encryptionTypeCombo = new JComboBox<>(CodecRegistry.all().stream().map(Codec::id).toArray(String[]::new));
+        encryptionTypeCombo.setSelectedItem(EncryptionManager.EncryptionType.BASE64.name());
         gbc.gridx = 1;
         gbc.weightx = 0.7;
         panel.add(encryptionTypeCombo, gbc);
@@ -96,7 +100,8 @@ public class PasswordDialog extends JDialog {
                 "<b>BASE64</b> - Base64 encoding<br>" +
                 "<b>MD5</b> - hashing (irreversible)<br>" +
                 "<b>AES_WITH_SALT</b> - AES with salt<br>" +
-                "<b>FEISTEL</b> - Feistel cipher</html>");
+                "<b>FEISTEL</b> - Feistel cipher<br>" +
+                "<b>AES_GCM</b> - AES-256-GCM (authenticated)</html>");
         infoLabel.setFont(new Font("Arial", Font.PLAIN, 10));
         gbc.gridx = 0;
         gbc.gridy = 4;
@@ -126,49 +131,60 @@ public class PasswordDialog extends JDialog {
         serviceNameField.setText(entry.serviceName);
         usernameField.setText(entry.username);
         
+        Codec codec;
         try {
-            EncryptionManager.EncryptionType type = 
-                    EncryptionManager.EncryptionType.valueOf(entry.encryptionType);
-            if (EncryptionManager.isReversible(type)) {
-                String decrypted = EncryptionManager.decrypt(entry.password, type);
-                passwordField.setText(decrypted);
-            } else {
-                passwordField.setText("[Cannot be displayed - " + entry.encryptionType + "]");
-            }
-            encryptionTypeCombo.setSelectedItem(type);
+            codec = CodecRegistry.get(entry.encryptionType);
         } catch (Exception ex) {
             passwordField.setText("[Decryption error]");
+            return;
         }
+        encryptionTypeCombo.setSelectedItem(codec.id());
+        if (!codec.isReversible()) {
+            passwordField.setText("[Cannot be displayed - " + entry.encryptionType + "]");
+            return;
+        }
+        
+        new BackgroundTask<>(null, this, () -> SecretCache.reveal(userId, entry.id, entry.password, codec))
+                .onSuccess(decrypted -> {
+                    try {
+                        passwordField.setText(new String(decrypted));
+                    } finally {
+                        EncryptionManager.wipe(decrypted);
+                    }
+                })
+                .onError(error -> passwordField.setText("[Decryption error]"))
+                .disabling(passwordField, saveButton)
+                .start();
     }
     
     private void handleSave(ActionEvent e) {
         String serviceName = serviceNameField.getText().trim();
         String username = usernameField.getText().trim();
-        String password = new String(passwordField.getPassword());
-        EncryptionManager.EncryptionType encryptionType = 
-                (EncryptionManager.EncryptionType) encryptionTypeCombo.getSelectedItem();
+        char[] password = passwordField.getPassword();
+        Codec codec = CodecRegistry.get((String) encryptionTypeCombo.getSelectedItem());
         
-        if (serviceName.isEmpty() || username.isEmpty() || password.isEmpty()) {
+        if (serviceName.isEmpty() || username.isEmpty() || password.length == 0) {
+            EncryptionManager.wipe(password);
             JOptionPane.showMessageDialog(this, "Fill in all fields!");
             return;
         }
         
-        try {
-            String encryptedPassword = EncryptionManager.encrypt(password, encryptionType);
-            
+        new BackgroundTask<>(null, this, () -> {
+            String encryptedPassword;
+            try {
+                encryptedPassword = codec.encrypt(password);
+            } finally {
+                EncryptionManager.wipe(password);
+            }
             if (editingEntry == null) {
-                DatabaseManager.savePassword(userId, serviceName, username, 
-                        encryptedPassword, encryptionType.name());
-            } else {
-                DatabaseManager.updatePassword(editingEntry.id, encryptedPassword, 
-                        encryptionType.name());
+                return VaultCache.savePassword(userId, serviceName, username, encryptedPassword, codec.id()).get();
             }
-            
-            mainPanel.loadPasswords();
+            return VaultCache.updatePassword(userId, editingEntry.id, encryptedPassword, codec.id()).get();
+        }).onSuccess(summary -> {
+            mainPanel.passwordSaved(summary, editingEntry == null);
             JOptionPane.showMessageDialog(this, "Password saved!");
             dispose();
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
-        }
+        }).disabling(saveButton)
+                .start();
     }
 }
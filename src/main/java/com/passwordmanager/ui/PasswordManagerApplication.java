@@ -1,20 +1,34 @@
 package com.passwordmanager.ui;
 
 import com.formdev.flatlaf.FlatDarculaLaf;
+import com.passwordmanager.crypto.PasswordHasher;
 import com.passwordmanager.database.DatabaseManager;
+import com.passwordmanager.database.DatabaseWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class PasswordManagerApplication extends JFrame {
+    private static final Logger log = LoggerFactory.getLogger(PasswordManagerApplication.class);
+    private static final Executor STARTUP = task -> {
+        Thread thread = new Thread(task, "startup");
+        thread.setDaemon(true);
+        thread.start();
+    };
+    
+    private final CompletableFuture<Void> database;
     private CardLayout cardLayout;
     private JPanel mainPanel;
     private LoginPanel loginPanel;
     private RegistrationPanel registrationPanel;
     private MainPanel mainPanel_logged;
     
-    public PasswordManagerApplication() {
-        DatabaseManager.initialize();
+    public PasswordManagerApplication(long startedAt, CompletableFuture<Void> database) {
+        this.database = database;
         
         setTitle("Password Manager");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -26,18 +40,19 @@ public class PasswordManagerApplication extends JFrame {
         mainPanel = new JPanel(cardLayout);
         
         loginPanel = new LoginPanel(this);
-        registrationPanel = new RegistrationPanel(this);
-        mainPanel_logged = new MainPanel(this);
-        
         mainPanel.add(loginPanel, "LOGIN");
-        mainPanel.add(registrationPanel, "REGISTER");
-        mainPanel.add(mainPanel_logged, "MAIN");
         
         add(mainPanel);
         
         cardLayout.show(mainPanel, "LOGIN");
         
         setVisible(true);
+        SwingUtilities.invokeLater(() ->
+                log.info("Login screen interactive after {} ms", elapsedMillis(startedAt)));
+    }
+    
+    public void awaitDatabase() {
+        database.join();
     }
     
     public void showLoginPanel() {
@@ -46,23 +61,60 @@ public class PasswordManagerApplication extends JFrame {
     }
     
     public void showRegistrationPanel() {
+        if (registrationPanel == null) {
+            timed("Registration panel construction", () -> registrationPanel = new RegistrationPanel(this));
+            mainPanel.add(registrationPanel, "REGISTER");
+        }
         registrationPanel.clear();
         cardLayout.show(mainPanel, "REGISTER");
     }
     
     public void showMainPanel(int userId) {
+        if (mainPanel_logged == null) {
+            timed("Main panel construction", () -> mainPanel_logged = new MainPanel(this));
+            mainPanel.add(mainPanel_logged, "MAIN");
+        }
         mainPanel_logged.setUserId(userId);
         mainPanel_logged.loadPasswords();
         cardLayout.show(mainPanel, "MAIN");
     }
     
     public static void main(String[] args) {
-        try {
-            UIManager.setLookAndFeel(new FlatDarculaLaf());
-        } catch (UnsupportedLookAndFeelException e) {
-            e.printStackTrace();
-        }
+        long startedAt = System.nanoTime();
         
-        SwingUtilities.invokeLater(PasswordManagerApplication::new);
+        CompletableFuture<Void> database = CompletableFuture
+                .runAsync(() -> timed("Driver loading", DatabaseManager::loadDriver), STARTUP)
+                .thenRun(() -> timed("Schema setup", DatabaseManager::initialize));
+        database.whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.error("Database initialization failed", error.getCause() != null ? error.getCause() : error);
+            }
+        });
+        CompletableFuture.runAsync(() -> timed("Hasher calibration", PasswordHasher::calibrate), STARTUP);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            DatabaseWriter.shutdown();
+            DatabaseManager.shutdown();
+        }));
+        
+        timed("Look and feel setup", () -> {
+            try {
+                UIManager.setLookAndFeel(new FlatDarculaLaf());
+            } catch (UnsupportedLookAndFeelException e) {
+                e.printStackTrace();
+            }
+        });
+        
+        EdtWatchdog.start();
+        SwingUtilities.invokeLater(() -> new PasswordManagerApplication(startedAt, database));
+    }
+    
+    private static void timed(String phase, Runnable work) {
+        long began = System.nanoTime();
+        work.run();
+        log.info("{} took {} ms", phase, elapsedMillis(began));
+    }
+    
+    private static long elapsedMillis(long since) {
+        return (System.nanoTime() - since) / 1_000_000;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,321 @@
+package com.passwordmanager.ui;
+
+import com.passwordmanager.database.DatabaseManager;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+public class PasswordTableModel extends AbstractTableModel {
+    public static final int ID_COLUMN = 4;
+    
+    private static final String[] COLUMNS = {"Service", "Login", "Password", "Encryption", "ID"};
+    private static final int PAGE_SIZE = Integer.getInteger("pm.ui.pageSize", 200);
+    private static final int MAX_PAGES = Integer.getInteger("pm.ui.maxPages", 8);
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "page-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final Map<Integer, List<DatabaseManager.PasswordSummary>> pages =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, List<DatabaseManager.PasswordSummary>> eldest) {
+                    return size() > MAX_PAGES;
+                }
+            };
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private RowList results;
+    private boolean resident;
+    private int userId = -1;
+    private int rowCount;
+    private int generation;
+    private int revision;
+    private Consumer<Throwable> errorHandler = error -> { };
+    
+    public void setErrorHandler(Consumer<Throwable> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+    
+    public void showVault(int userId) {
+        if (userId != this.userId || results != null) {
+            clear();
+        }
+        this.userId = userId;
+        int expected = ++generation;
+        pendingPages.clear();
+        
+        CompletableFuture.supplyAsync(() -> new Snapshot(DatabaseManager.countUserPasswords(userId),
+                        DatabaseManager.getUserSummariesPage(userId, 0, PAGE_SIZE)), LOADER)
+                .whenComplete((snapshot, error) -> SwingUtilities.invokeLater(() -> {
+                    if (expected != generation) {
+                        return;
+                    }
+                    if (error != null) {
+                        errorHandler.accept(error.getCause() != null ? error.getCause() : error);
+                        return;
+                    }
+                    pages.clear();
+                    pages.put(0, snapshot.firstPage);
+                    rowCount = snapshot.rowCount;
+                    fireTableDataChanged();
+                }));
+    }
+    
+    public void showResults(List<DatabaseManager.PasswordSummary> results) {
+        showList(results, false);
+    }
+    
+    public void showResident(List<DatabaseManager.PasswordSummary> entries) {
+        showList(entries, true);
+    }
+    
+    public boolean isResident() {
+        return resident;
+    }
+    
+    public void clear() {
+        generation++;
+        pages.clear();
+        pendingPages.clear();
+        results = null;
+        resident = false;
+        rowCount = 0;
+        fireTableDataChanged();
+    }
+    
+    public DatabaseManager.PasswordSummary getSummary(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        if (results != null) {
+            return results.get(row);
+        }
+        
+        int page = row / PAGE_SIZE;
+        List<DatabaseManager.PasswordSummary> entries = pages.get(page);
+        if (entries == null) {
+            requestPage(page);
+            return null;
+        }
+        int index = row - page * PAGE_SIZE;
+        if (index >= entries.size()) {
+            requestPage(page);
+            return null;
+        }
+        return entries.get(index);
+    }
+    
+    public boolean insertRow(DatabaseManager.PasswordSummary summary) {
+        if (resident) {
+            if (results.contains(summary.id)) {
+                return updateRow(summary);
+            }
+            int row = results.insert(summary, DatabaseManager.PasswordSummary.LISTING_ORDER);
+            rowCount++;
+            fireTableRowsInserted(row, row);
+            return true;
+        }
+        if (results != null) {
+            return false;
+        }
+        int row = insertionPoint(summary);
+        if (row < 0) {
+            return false;
+        }
+        Map<Integer, List<DatabaseManager.PasswordSummary>> old = new LinkedHashMap<>(pages);
+        rowCount++;
+        relayout(old, i -> i < row ? rowAt(old, i) : i == row ? summary : rowAt(old, i - 1));
+        fireTableRowsInserted(row, row);
+        return true;
+    }
+    
+    public boolean updateRow(DatabaseManager.PasswordSummary summary) {
+        int row = results != null ? results.replace(summary) : indexOf(summary.id);
+        if (row < 0) {
+            return false;
+        }
+        if (results == null) {
+            int page = row / PAGE_SIZE;
+            List<DatabaseManager.PasswordSummary> entries = new ArrayList<>(pages.get(page));
+            entries.set(row - page * PAGE_SIZE, summary);
+            pages.put(page, entries);
+        }
+        fireTableRowsUpdated(row, row);
+        return true;
+    }
+    
+    public boolean removeRow(int passwordId) {
+        int row = results != null ? results.remove(passwordId) : indexOf(passwordId);
+        if (row < 0) {
+            return false;
+        }
+        rowCount--;
+        if (results == null) {
+            Map<Integer, List<DatabaseManager.PasswordSummary>> old = new LinkedHashMap<>(pages);
+            relayout(old, i -> rowAt(old, i < row ? i : i + 1));
+        }
+        fireTableRowsDeleted(row, row);
+        return true;
+    }
+    
+    public int getPasswordId(int row) {
+        DatabaseManager.PasswordSummary summary = getSummary(row);
+        return summary == null ? -1 : summary.id;
+    }
+    
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+    
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+    
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == ID_COLUMN ? Integer.class : String.class;
+    }
+    
+    @Override
+    public Object getValueAt(int row, int column) {
+        DatabaseManager.PasswordSummary summary = getSummary(row);
+        if (summary == null) {
+            return column == 2 ? "***" : null;
+        }
+        return switch (column) {
+            case 0 -> summary.serviceName;
+            case 1 -> summary.username;
+            case 2 -> "***";
+            case 3 -> summary.encryptionType;
+            default -> summary.id;
+        };
+    }
+    
+    private void showList(List<DatabaseManager.PasswordSummary> entries, boolean resident) {
+        generation++;
+        pages.clear();
+        pendingPages.clear();
+        List<DatabaseManager.PasswordSummary> rows = new ArrayList<>(entries);
+        if (resident) {
+            rows.sort(DatabaseManager.PasswordSummary.LISTING_ORDER);
+        }
+        results = new RowList(rows);
+        this.resident = resident;
+        rowCount = results.size();
+        fireTableDataChanged();
+    }
+    
+    private void requestPage(int page) {
+        if (!pendingPages.add(page)) {
+            return;
+        }
+        int expected = generation;
+        int layout = revision;
+        int owner = userId;
+        CompletableFuture.supplyAsync(() ->
+                        DatabaseManager.getUserSummariesPage(owner, page * PAGE_SIZE, PAGE_SIZE), LOADER)
+                .whenComplete((entries, error) -> SwingUtilities.invokeLater(() -> {
+                    if (expected != generation || layout != revision) {
+                        return;
+                    }
+                    if (error != null) {
+                        // Left pending so repaints do not re-request it; the next reload or relayout clears it.
+                        errorHandler.accept(error.getCause() != null ? error.getCause() : error);
+                        return;
+                    }
+                    pendingPages.remove(page);
+                    pages.put(page, entries);
+                    int first = page * PAGE_SIZE;
+                    int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+                    if (last >= first) {
+                        fireTableRowsUpdated(first, last);
+                    }
+                }));
+    }
+    
+    // Rebuilds each resident page from the pre-mutation layout; a page keeps the longest prefix that is still known
+    // and reloads the rest lazily. Work is bounded by the resident window, not the vault size.
+    private void relayout(Map<Integer, List<DatabaseManager.PasswordSummary>> old,
+                          IntFunction<DatabaseManager.PasswordSummary> source) {
+        revision++;
+        pendingPages.clear();
+        pages.clear();
+        for (int page : old.keySet()) {
+            int start = page * PAGE_SIZE;
+            int end = Math.min(start + PAGE_SIZE, rowCount);
+            List<DatabaseManager.PasswordSummary> entries = new ArrayList<>(Math.max(0, end - start));
+            for (int i = start; i < end; i++) {
+                DatabaseManager.PasswordSummary summary = source.apply(i);
+                if (summary == null) {
+                    break;
+                }
+                entries.add(summary);
+            }
+            if (!entries.isEmpty()) {
+                pages.put(page, entries);
+            }
+        }
+    }
+    
+    private int insertionPoint(DatabaseManager.PasswordSummary summary) {
+        for (int row = 0; row < rowCount; row++) {
+            DatabaseManager.PasswordSummary existing = rowAt(pages, row);
+            if (existing == null) {
+                return -1;
+            }
+            if (DatabaseManager.PasswordSummary.LISTING_ORDER.compare(summary, existing) < 0) {
+                return row;
+            }
+        }
+        return rowCount;
+    }
+    
+    // Paged mode only; the scan is bounded by the resident window (MAX_PAGES * PAGE_SIZE rows).
+    private int indexOf(int passwordId) {
+        for (Map.Entry<Integer, List<DatabaseManager.PasswordSummary>> e : pages.entrySet()) {
+            List<DatabaseManager.PasswordSummary> entries = e.getValue();
+            for (int i = 0; i < entries.size(); i++) {
+                if (entries.get(i).id == passwordId) {
+                    return e.getKey() * PAGE_SIZE + i;
+                }
+            }
+        }
+        return -1;
+    }
+    
+    private static DatabaseManager.PasswordSummary rowAt(Map<Integer, List<DatabaseManager.PasswordSummary>> pages,
+                                                         int row) {
+        List<DatabaseManager.PasswordSummary> entries = pages.get(row / PAGE_SIZE);
+        int index = row % PAGE_SIZE;
+        return entries != null && index < entries.size() ? entries.get(index) : null;
+    }
+    
+    private static class Snapshot {
+        final int rowCount;
+        final List<DatabaseManager.PasswordSummary> firstPage;
+        
+        Snapshot(int rowCount, List<DatabaseManager.PasswordSummary> firstPage) {
+            this.rowCount = rowCount;
+            this.firstPage = firstPage;
+        }
+    }
+}
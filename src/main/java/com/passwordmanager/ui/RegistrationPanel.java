@@ -6,6 +6,7 @@ import com.passwordmanager.crypto.EncryptionManager;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.util.Arrays;
 
 public class RegistrationPanel extends JPanel {
     private JTextField usernameField;
@@ -99,40 +100,51 @@ public class RegistrationPanel extends JPanel {
     
     private void handleRegister(ActionEvent e) {
         String username = usernameField.getText().trim();
-        String password = new String(passwordField.getPassword());
-        String confirmPassword = new String(confirmPasswordField.getPassword());
+        char[] password = passwordField.getPassword();
+        char[] confirmPassword = confirmPasswordField.getPassword();
         
         errorLabel.setText("");
         successLabel.setText("");
         
-        if (username.isEmpty() || password.isEmpty()) {
-            errorLabel.setText("Fill in all fields!");
-            return;
-        }
-        
-        if (!password.equals(confirmPassword)) {
-            errorLabel.setText("Passwords do not match!");
-            return;
-        }
-        
-        if (password.length() < 6) {
-            errorLabel.setText("Password must be at least 6 characters!");
-            return;
+        try {
+            if (username.isEmpty() || password.length == 0) {
+                errorLabel.setText("Fill in all fields!");
+                EncryptionManager.wipe(password);
+                return;
+            }
+            
+            if (!Arrays.equals(password, confirmPassword)) {
+                errorLabel.setText("Passwords do not match!");
+                EncryptionManager.wipe(password);
+                return;
+            }
+            
+            if (password.length < 6) {
+                errorLabel.setText("Password must be at least 6 characters!");
+                EncryptionManager.wipe(password);
+                return;
+            }
+        } finally {
+            EncryptionManager.wipe(confirmPassword);
         }
         
-        String passwordHash = EncryptionManager.encryptMD5(password);
-        
-        try {
-            boolean registered = DatabaseManager.registerUser(username, passwordHash);
+        new BackgroundTask<>("register", this, () -> {
+            try {
+                app.awaitDatabase();
+                return DatabaseManager.registerUser(username, password);
+            } finally {
+                EncryptionManager.wipe(password);
+            }
+        }).onSuccess(registered -> {
             if (registered) {
-                successLabel.setText("Registration successful! Go to login.");
                 clear();
+                successLabel.setText("Registration successful! Go to login.");
             } else {
                 errorLabel.setText("User with this login already exists!");
             }
-        } catch (Exception ex) {
-            errorLabel.setText("Error: " + ex.getMessage());
-        }
+        }).onError(error -> errorLabel.setText("Error: " + error.getMessage()))
+                .disabling(registerButton, backButton)
+                .start();
     }
     
     public void clear() {
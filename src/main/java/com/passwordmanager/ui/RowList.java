@@ -0,0 +1,240 @@
+package com.passwordmanager.ui;
+
+import com.passwordmanager.database.DatabaseManager;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Rows in display order, kept in a size-annotated treap so that positional reads, id lookups, inserts and removals
+// are all O(log n) instead of shifting an ArrayList.
+class RowList {
+    private static final int MAX_DEPTH = 64;
+    
+    private final Map<Integer, Node> nodes;
+    private Node root;
+    private Node cursor;
+    private int cursorRow;
+    
+    RowList(List<DatabaseManager.PasswordSummary> rows) {
+        nodes = new HashMap<>(rows.size() * 2);
+        Node[] ordered = new Node[rows.size()];
+        for (int i = 0; i < ordered.length; i++) {
+            ordered[i] = new Node(rows.get(i));
+            nodes.put(ordered[i].value.id, ordered[i]);
+        }
+        root = build(ordered, 0, ordered.length, 0);
+    }
+    
+    int size() {
+        return size(root);
+    }
+    
+    DatabaseManager.PasswordSummary get(int row) {
+        if (row < 0 || row >= size()) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for length " + size());
+        }
+        Node node;
+        if (cursor == null) {
+            node = find(row);
+        } else if (row == cursorRow) {
+            node = cursor;
+        } else if (row == cursorRow + 1) {
+            node = successor(cursor);
+        } else {
+            node = find(row);
+        }
+        cursor = node;
+        cursorRow = row;
+        return node.value;
+    }
+    
+    boolean contains(int id) {
+        return nodes.containsKey(id);
+    }
+    
+    int indexOf(int id) {
+        Node node = nodes.get(id);
+        return node == null ? -1 : rank(node);
+    }
+    
+    int insert(DatabaseManager.PasswordSummary value, Comparator<DatabaseManager.PasswordSummary> order) {
+        if (nodes.containsKey(value.id)) {
+            throw new IllegalArgumentException("Row " + value.id + " is already present");
+        }
+        int row = 0;
+        for (Node node = root; node != null; ) {
+            if (order.compare(value, node.value) < 0) {
+                node = node.left;
+            } else {
+                row += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        
+        Node created = new Node(value);
+        created.priority = ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE - MAX_DEPTH);
+        nodes.put(value.id, created);
+        cursor = null;
+        Node[] parts = split(root, row);
+        setRoot(merge(merge(parts[0], created), parts[1]));
+        return row;
+    }
+    
+    int replace(DatabaseManager.PasswordSummary value) {
+        Node node = nodes.get(value.id);
+        if (node == null) {
+            return -1;
+        }
+        node.value = value;
+        return rank(node);
+    }
+    
+    int remove(int id) {
+        Node node = nodes.remove(id);
+        if (node == null) {
+            return -1;
+        }
+        int row = rank(node);
+        cursor = null;
+        Node[] head = split(root, row);
+        Node[] tail = split(head[1], 1);
+        setRoot(merge(head[0], tail[1]));
+        return row;
+    }
+    
+    private Node find(int row) {
+        Node node = root;
+        while (true) {
+            int left = size(node.left);
+            if (row < left) {
+                node = node.left;
+            } else if (row > left) {
+                row -= left + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+    
+    // Table passes (filtering, painting) read rows in order; stepping from the previous row is amortized O(1).
+    private static Node successor(Node node) {
+        if (node.right != null) {
+            node = node.right;
+            while (node.left != null) {
+                node = node.left;
+            }
+            return node;
+        }
+        while (node.parent != null && node == node.parent.right) {
+            node = node.parent;
+        }
+        return node.parent;
+    }
+    
+    private int rank(Node node) {
+        int row = size(node.left);
+        for (; node.parent != null; node = node.parent) {
+            if (node == node.parent.right) {
+                row += size(node.parent.left) + 1;
+            }
+        }
+        return row;
+    }
+    
+    // Balanced build over nodes allocated in row order, which keeps in-order scans cache friendly; priorities fall
+    // with depth so the result is a valid treap that random inserts sink beneath.
+    private static Node build(Node[] ordered, int from, int to, int depth) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        Node node = ordered[mid];
+        node.priority = Integer.MAX_VALUE - depth;
+        attachLeft(node, build(ordered, from, mid, depth + 1));
+        attachRight(node, build(ordered, mid + 1, to, depth + 1));
+        node.update();
+        return node;
+    }
+    
+    private void setRoot(Node node) {
+        root = node;
+        if (root != null) {
+            root.parent = null;
+        }
+    }
+    
+    private static Node[] split(Node node, int count) {
+        if (node == null) {
+            return new Node[2];
+        }
+        int left = size(node.left);
+        Node[] parts;
+        if (count <= left) {
+            parts = split(node.left, count);
+            attachLeft(node, parts[1]);
+            parts[1] = node;
+        } else {
+            parts = split(node.right, count - left - 1);
+            attachRight(node, parts[0]);
+            parts[0] = node;
+        }
+        node.update();
+        return parts;
+    }
+    
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            attachRight(left, merge(left.right, right));
+            left.update();
+            return left;
+        }
+        attachLeft(right, merge(left, right.left));
+        right.update();
+        return right;
+    }
+    
+    private static void attachLeft(Node parent, Node child) {
+        parent.left = child;
+        if (child != null) {
+            child.parent = parent;
+        }
+    }
+    
+    private static void attachRight(Node parent, Node child) {
+        parent.right = child;
+        if (child != null) {
+            child.parent = parent;
+        }
+    }
+    
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+    
+    private static class Node {
+        DatabaseManager.PasswordSummary value;
+        int priority;
+        Node left;
+        Node right;
+        Node parent;
+        int size = 1;
+        
+        Node(DatabaseManager.PasswordSummary value) {
+            this.value = value;
+        }
+        
+        void update() {
+            size = 1 + RowList.size(left) + RowList.size(right);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.passwordmanager.crypto;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EncryptionManagerTest {
+    private static final Charset WINDOWS_1251 = Charset.forName("windows-1251");
+    private static final String CYRILLIC = "\u043f\u0430\u0440\u043e\u043b\u044c \u043e\u0442 \u043f\u043e\u0447\u0442\u044b";
+    
+    @Test
+    public void legacyRowsInPlatformCharsetDecode() {
+        byte[] legacy = CYRILLIC.getBytes(WINDOWS_1251);
+        assertArrayEquals(CYRILLIC.toCharArray(), EncryptionManager.decodeText(legacy, 0, legacy.length, WINDOWS_1251));
+    }
+    
+    @Test
+    public void utf8RowsDecodeAsUtf8WhateverThePlatformCharset() {
+        byte[] utf8 = ("x" + CYRILLIC + "\ud83d\udd11").getBytes(StandardCharsets.UTF_8);
+        char[] decoded = EncryptionManager.decodeText(utf8, 1, utf8.length - 1, WINDOWS_1251);
+        assertEquals(CYRILLIC + "\ud83d\udd11", new String(decoded));
+    }
+    
+    @Test
+    public void legacyBase64RowDecryptsInBothPaths() {
+        String stored = Base64.getEncoder().encodeToString(CYRILLIC.getBytes(Charset.defaultCharset()));
+        String expected = new String(CYRILLIC.getBytes(Charset.defaultCharset()), Charset.defaultCharset());
+        assertEquals(expected, EncryptionManager.decryptBase64(stored));
+        assertEquals(expected, new String(EncryptionManager.decryptToChars(stored, EncryptionManager.EncryptionType.BASE64)));
+    }
+    
+    @Test
+    public void base64MatchesJdkEncoder() {
+        Random random = new Random(7);
+        for (int length = 0; length <= 100; length++) {
+            for (int offset = 0; offset < 4; offset++) {
+                byte[] src = new byte[offset + length + 2];
+                random.nextBytes(src);
+                byte[] region = Arrays.copyOfRange(src, offset, offset + length);
+                byte[] expected = Base64.getEncoder().encode(region);
+                
+                byte[] encoded = new byte[expected.length + 5];
+                int n = EncryptionManager.base64Encode(src, offset, length, encoded, 3);
+                assertArrayEquals("encode, length " + length, expected, Arrays.copyOfRange(encoded, 3, 3 + n));
+                
+                byte[] decoded = new byte[length + 5];
+                int m = EncryptionManager.base64Decode(encoded, 3, n, decoded, 2);
+                assertArrayEquals("decode, length " + length, region, Arrays.copyOfRange(decoded, 2, 2 + m));
+            }
+        }
+    }
+    
+    @Test
+    public void base64DecodeAgreesWithJdkOnEdgeCases() {
+        String[] inputs = {"", "QQ", "QUI", "QQ==", "QUI=", "QR==", "Q", "QQ=", "QUJD=", "QUJDRA=", "=", "==",
+                "QQ==QQ==", "QU I=", " QUJD", "QUJD\n", "QU-_", "QU+/", "QUJ\u00e9"};
+        for (String input : inputs) {
+            byte[] src = input.getBytes(StandardCharsets.ISO_8859_1);
+            byte[] expected;
+            try {
+                expected = Base64.getDecoder().decode(src);
+            } catch (IllegalArgumentException e) {
+                expected = null;
+            }
+            
+            byte[] actual = new byte[src.length];
+            try {
+                int n = EncryptionManager.base64Decode(src, 0, src.length, actual, 0);
+                actual = Arrays.copyOf(actual, n);
+            } catch (IllegalArgumentException e) {
+                actual = null;
+            }
+            
+            if (expected == null && actual != null) {
+                fail("'" + input + "' should be rejected");
+            }
+            assertArrayEquals("'" + input + "'", expected, actual);
+        }
+    }
+    
+    @Test
+    public void utf8EncodingMatchesStringGetBytes() {
+        String[] samples = {"", "ascii", CYRILLIC, "\u20ac \u00e9\u00e8", "\ud83d\udd11 key", "lone \ud83d high",
+                "lone \udd11 low", "trailing \ud83d", "\udd11\ud83d reversed", "nul\u0000inside"};
+        for (String sample : samples) {
+            char[] chars = ("xy" + sample).toCharArray();
+            byte[] expected = sample.getBytes(StandardCharsets.UTF_8);
+            byte[] dst = new byte[1 + chars.length * 3];
+            int n = EncryptionManager.encodeUtf8(chars, 2, chars.length - 2, dst, 1);
+            assertArrayEquals(sample, expected, Arrays.copyOfRange(dst, 1, 1 + n));
+        }
+    }
+    
+    @Test
+    public void stringRoundTripsThroughEveryReversibleType() {
+        String[] samples = {"a", "password", CYRILLIC, "mixed \ud83d\udd11 " + CYRILLIC, "x".repeat(300)};
+        for (EncryptionManager.EncryptionType type : EncryptionManager.EncryptionType.values()) {
+            if (!EncryptionManager.isReversible(type)) {
+                continue;
+            }
+            for (String sample : samples) {
+                String expected = sample;
+                if (type == EncryptionManager.EncryptionType.FEISTEL
+                        && sample.getBytes(StandardCharsets.UTF_8).length % 2 != 0) {
+                    expected += "\0";
+                }
+                String encrypted = EncryptionManager.encrypt(sample.toCharArray(), type);
+                assertEquals(type + " " + sample, expected, EncryptionManager.decrypt(encrypted, type));
+                assertEquals(type + " string " + sample, expected,
+                        EncryptionManager.decrypt(EncryptionManager.encrypt(sample, type), type));
+                assertEquals(type + " chars " + sample, expected,
+                        new String(EncryptionManager.decryptToChars(encrypted, type)));
+            }
+        }
+    }
+    
+    @Test
+    public void providerOverridingBuiltinIdServesEveryEntryPoint() throws IOException {
+        Path dir = Files.createTempDirectory("codecs");
+        Path services = dir.resolve("META-INF/services/" + Codec.class.getName());
+        Files.createDirectories(services.getParent());
+        Files.writeString(services, ReversingGcm.class.getName() + "\n");
+        
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.toUri().toURL()}, getClass().getClassLoader())) {
+            CodecRegistry.reload(loader);
+            EncryptionManager.EncryptionType type = EncryptionManager.EncryptionType.AES_GCM;
+            assertEquals("cba", EncryptionManager.encrypt("abc", type));
+            assertEquals("cba", EncryptionManager.encrypt("abc".toCharArray(), type));
+            assertEquals("abc", EncryptionManager.decrypt("cba", type));
+            assertEquals("abc", new String(EncryptionManager.decryptToChars("cba", type)));
+            assertEquals("cba", EncryptionManager.encryptAESGCM("abc"));
+            assertFalse(EncryptionManager.isReversible(type));
+            
+            byte[] out = new byte[4];
+            int n = EncryptionManager.encrypt("abc".getBytes(StandardCharsets.US_ASCII), 0, 3, type, out, 1);
+            assertEquals("cba", new String(out, 1, n, StandardCharsets.US_ASCII));
+        } finally {
+            CodecRegistry.reload(getClass().getClassLoader());
+        }
+        assertTrue(CodecRegistry.get(EncryptionManager.EncryptionType.AES_GCM) instanceof BuiltinCodecs.AesGcm);
+    }
+    
+    public static class ReversingGcm implements Codec {
+        @Override
+        public String id() {
+            return EncryptionManager.EncryptionType.AES_GCM.name();
+        }
+        
+        @Override
+        public boolean isReversible() {
+            return false;
+        }
+        
+        @Override
+        public String encrypt(String plaintext) {
+            return new StringBuilder(plaintext).reverse().toString();
+        }
+        
+        @Override
+        public String decrypt(String encrypted) {
+            return new StringBuilder(encrypted).reverse().toString();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.passwordmanager.crypto;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class FeistelCipherTest {
+    private static final byte[] KEY = "PasswordManagerSecretKey2024_JDK17_v1".getBytes();
+    
+    @Test
+    public void everyImplementationMatchesBaseline() {
+        Random random = new Random(42);
+        for (FeistelCipher.Implementation impl : FeistelCipher.Implementation.values()) {
+            FeistelCipher cipher = new FeistelCipher(KEY, impl.name());
+            assertEquals(impl, cipher.implementation());
+            for (int length = 0; length <= 130; length += 2) {
+                for (int offset = 0; offset < 9; offset++) {
+                    byte[] plain = new byte[offset + length + 3];
+                    random.nextBytes(plain);
+                    
+                    byte[] expected = plain.clone();
+                    byte[] region = Arrays.copyOfRange(plain, offset, offset + length);
+                    System.arraycopy(Baseline.encrypt(region), 0, expected, offset, length);
+                    
+                    byte[] actual = plain.clone();
+                    cipher.encrypt(actual, offset, length);
+                    assertArrayEquals(impl + " encrypt, length " + length + ", offset " + offset, expected, actual);
+                    
+                    cipher.decrypt(actual, offset, length);
+                    assertArrayEquals(impl + " decrypt, length " + length + ", offset " + offset, plain, actual);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void encryptionManagerMatchesBaselineStrings() {
+        String[] samples = {"a", "ab", "password", "Tr0ub4dor&3", "correct horse battery staple", "x".repeat(257)};
+        for (String sample : samples) {
+            String expected = Baseline.encryptFeistel(sample);
+            assertEquals(sample, expected, EncryptionManager.encryptFeistel(sample));
+            assertEquals(sample, Baseline.decryptFeistel(expected), EncryptionManager.decryptFeistel(expected));
+        }
+    }
+    
+    @Test
+    public void unknownImplementationFallsBackToDefault() {
+        assertEquals(FeistelCipher.Implementation.SWAR, new FeistelCipher(KEY, "avx512").implementation());
+        assertEquals(FeistelCipher.Implementation.SWAR, new FeistelCipher(KEY, " ").implementation());
+        assertEquals(FeistelCipher.Implementation.TABLE, new FeistelCipher(KEY, " table ").implementation());
+    }
+    
+    // Verbatim copy of the Feistel code EncryptionManager shipped before the table and SWAR variants.
+    private static class Baseline {
+        private static final byte[] SECRET_KEY = KEY;
+        
+        static byte[] encrypt(byte[] plain) {
+            return Base64.getDecoder().decode(encryptBytes(plain.clone()));
+        }
+        
+        static String encryptFeistel(String plaintext) {
+            return encryptBytes(plaintext.getBytes());
+        }
+        
+        private static String encryptBytes(byte[] data) {
+            if (data.length % 2 != 0) {
+                byte[] padded = new byte[data.length + 1];
+                System.arraycopy(data, 0, padded, 0, data.length);
+                padded[data.length] = 0;
+                data = padded;
+            }
+            
+            byte[] encrypted = new byte[data.length];
+            
+            for (int round = 0; round < 16; round++) {
+                for (int i = 0; i < data.length; i += 2) {
+                    int left = data[i] & 0xFF;
+                    int right = data[i + 1] & 0xFF;
+                    
+                    int f = feistelFunction(right, round);
+                    
+                    int newLeft = right;
+                    int newRight = left ^ f;
+                    
+                    encrypted[i] = (byte) newLeft;
+                    encrypted[i + 1] = (byte) newRight;
+                }
+                System.arraycopy(encrypted, 0, data, 0, encrypted.length);
+            }
+            
+            return Base64.getEncoder().encodeToString(encrypted);
+        }
+        
+        static String decryptFeistel(String encrypted) {
+            byte[] data = Base64.getDecoder().decode(encrypted);
+            byte[] decrypted = new byte[data.length];
+            
+            for (int round = 15; round >= 0; round--) {
+                for (int i = 0; i < data.length; i += 2) {
+                    int left = data[i] & 0xFF;
+                    int right = data[i + 1] & 0xFF;
+                    
+                    int f = feistelFunction(left, round);
+                    
+                    int newLeft = right ^ f;
+                    int newRight = left;
+                    
+                    decrypted[i] = (byte) newLeft;
+                    decrypted[i + 1] = (byte) newRight;
+                }
+                System.arraycopy(decrypted, 0, data, 0, decrypted.length);
+            }
+            
+            return new String(decrypted);
+        }
+        
+        private static int feistelFunction(int input, int round) {
+            int key = SECRET_KEY[round % SECRET_KEY.length] & 0xFF;
+            return (input ^ key ^ round) & 0x0F;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.passwordmanager.crypto;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PasswordHasherTest {
+    private static final Charset WINDOWS_1251 = Charset.forName("windows-1251");
+    
+    @Test
+    public void legacyAsciiHashVerifies() throws Exception {
+        String stored = md5Hex("hunter2".getBytes(StandardCharsets.US_ASCII));
+        assertTrue(PasswordHasher.verifyLegacy("hunter2".toCharArray(), stored));
+        assertFalse(PasswordHasher.verifyLegacy("hunter3".toCharArray(), stored));
+    }
+    
+    @Test
+    public void legacyHashFromNonUtf8PlatformCharsetVerifies() throws Exception {
+        String password = "\u043f\u0430\u0440\u043e\u043b\u044c123";
+        String stored = md5Hex(password.getBytes(WINDOWS_1251));
+        assertTrue(PasswordHasher.verifyLegacy(password.toCharArray(), stored, WINDOWS_1251));
+        assertFalse(PasswordHasher.verifyLegacy(password.toCharArray(), stored, StandardCharsets.UTF_8));
+        assertFalse(PasswordHasher.verifyLegacy("\u043f\u0430\u0440\u043e\u043b\u044c124".toCharArray(), stored, WINDOWS_1251));
+    }
+    
+    @Test
+    public void legacyUtf8HashVerifiesWhateverThePlatformCharset() throws Exception {
+        String password = "\u043f\u0430\u0440\u043e\u043b\u044c123";
+        String stored = md5Hex(password.getBytes(StandardCharsets.UTF_8));
+        assertTrue(PasswordHasher.verifyLegacy(password.toCharArray(), stored, WINDOWS_1251));
+        assertTrue(PasswordHasher.verifyLegacy(password.toCharArray(), stored, StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    public void pbkdf2HashRoundTrips() {
+        PasswordHasher.setIterations(PasswordHasher.MIN_ITERATIONS);
+        PasswordHasher.Hash hash = PasswordHasher.hash("\u043f\u0430\u0440\u043e\u043b\u044c123".toCharArray());
+        assertTrue(PasswordHasher.verify("\u043f\u0430\u0440\u043e\u043b\u044c123".toCharArray(), hash.salt, hash.iterations, hash.hash));
+        assertFalse(PasswordHasher.verify("\u043f\u0430\u0440\u043e\u043b\u044c124".toCharArray(), hash.salt, hash.iterations, hash.hash));
+    }
+    
+    private static String md5Hex(byte[] data) throws Exception {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("MD5").digest(data)) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
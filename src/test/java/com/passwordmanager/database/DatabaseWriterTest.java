@@ -0,0 +1,136 @@
+package com.passwordmanager.database;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DatabaseWriterTest {
+    private static Path dir;
+    private static int userId;
+    
+    @BeforeClass
+    public static void openDatabase() throws Exception {
+        dir = Files.createTempDirectory("writer-test");
+        System.setProperty("pm.db.path", dir.resolve("test.db").toString());
+        System.setProperty("pm.login.iterations", "10000");
+        DatabaseManager.configure(DatabaseConfig.fromSystemProperties());
+        DatabaseManager.initialize();
+        assertTrue(DatabaseManager.registerUser("writer", "secret".toCharArray()));
+        userId = DatabaseManager.authenticateUser("writer", "secret".toCharArray());
+    }
+    
+    @AfterClass
+    public static void closeDatabase() throws Exception {
+        DatabaseWriter.shutdown();
+        DatabaseManager.shutdown();
+        System.clearProperty("pm.db.path");
+        System.clearProperty("pm.login.iterations");
+        for (File file : dir.toFile().listFiles()) {
+            file.delete();
+        }
+        Files.delete(dir);
+    }
+    
+    @After
+    public void reopenWriter() {
+        DatabaseWriter.shutdown();
+        DatabaseWriter.reopen();
+    }
+    
+    @Test
+    public void updateThenDeleteOfSameRowInOneBatch() throws Exception {
+        int id = DatabaseWriter.savePassword(userId, "mail", "me", "old", "PLAINTEXT").get();
+        
+        CompletableFuture<Integer> blocker;
+        CompletableFuture<Void> update;
+        CompletableFuture<Void> delete;
+        try (ConnectionPool.PooledConnection lease = DatabaseManager.writerLease()) {
+            blocker = DatabaseWriter.savePassword(userId, "blocker", "me", "x", "PLAINTEXT");
+            awaitWriterBlocked();
+            update = DatabaseWriter.updatePassword(id, "new", "PLAINTEXT");
+            delete = DatabaseWriter.deletePassword(id);
+        }
+        
+        assertNotNull(blocker.get());
+        assertNull(update.get());
+        assertNull(delete.get());
+        assertNull(DatabaseManager.getPasswordById(userId, id));
+    }
+    
+    @Test
+    public void failingOperationDoesNotRollBackTheRestOfItsBatch() throws Exception {
+        CompletableFuture<Integer> first;
+        CompletableFuture<Integer> broken;
+        CompletableFuture<Integer> last;
+        try (ConnectionPool.PooledConnection lease = DatabaseManager.writerLease()) {
+            first = DatabaseWriter.savePassword(userId, "first", "me", "one", "PLAINTEXT");
+            awaitWriterBlocked();
+            broken = DatabaseWriter.savePassword(userId, null, "me", "two", "PLAINTEXT");
+            last = DatabaseWriter.savePassword(userId, "last", "me", "three", "PLAINTEXT");
+        }
+        
+        try {
+            broken.get();
+            fail("insert without a service name should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getMessage(), e.getCause().getMessage().startsWith("Password save error: "));
+        }
+        assertEquals("one", DatabaseManager.getPasswordById(userId, first.get()).password);
+        assertEquals("three", DatabaseManager.getPasswordById(userId, last.get()).password);
+    }
+    
+    @Test
+    public void shutdownCompletesQueuedWorkAndRejectsLaterSubmits() throws Exception {
+        List<CompletableFuture<Integer>> queued = new ArrayList<>();
+        Thread stopper;
+        try (ConnectionPool.PooledConnection lease = DatabaseManager.writerLease()) {
+            for (int i = 0; i < 5; i++) {
+                queued.add(DatabaseWriter.savePassword(userId, "queued" + i, "me", "x", "PLAINTEXT"));
+            }
+            stopper = new Thread(DatabaseWriter::shutdown);
+            stopper.start();
+            stopper.join(200);
+        }
+        stopper.join();
+        for (CompletableFuture<Integer> future : queued) {
+            assertTrue(future.isDone());
+            assertNotNull(DatabaseManager.getPasswordById(userId, future.get()));
+        }
+        
+        CompletableFuture<Integer> late = DatabaseWriter.savePassword(userId, "late", "me", "x", "PLAINTEXT");
+        assertTrue(late.isCompletedExceptionally());
+        try {
+            late.get();
+            fail("submit after shutdown should fail");
+        } catch (ExecutionException e) {
+            assertEquals("Password save error: writer is shut down", e.getCause().getMessage());
+        }
+    }
+    
+    // While the test holds the writer lease the writer parks in a timed tryLock; everything submitted after that
+    // point is drained into the same batch.
+    private static void awaitWriterBlocked() throws InterruptedException {
+        Thread writer = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("database-writer") && thread.isAlive())
+                .findFirst()
+                .orElseThrow();
+        while (writer.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.passwordmanager.database;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class SubstringIndexTest {
+    private static final String[] LETTERS = {"a", "b", "c", "A", "B", " ", "\u0436", "\u0416", "\u0451", "\u00e9",
+            "\u0130", "\u00df", "\ud83d\udd11", "-"};
+    
+    @Test
+    public void matchesContainsScanUnderRandomChurn() {
+        Random random = new Random(5);
+        SubstringIndex index = new SubstringIndex();
+        Map<Integer, String[]> expected = new HashMap<>();
+        
+        for (int step = 0; step < 20000; step++) {
+            int action = random.nextInt(3);
+            int id = random.nextInt(400);
+            if (action == 2) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                String serviceName = text(random);
+                String username = random.nextInt(10) == 0 ? null : text(random);
+                index.add(id, serviceName, username);
+                expected.put(id, new String[]{serviceName, username});
+            }
+            if (step % 200 == 0) {
+                assertSearches(random, index, expected);
+            }
+        }
+        assertSearches(random, index, expected);
+    }
+    
+    private static void assertSearches(Random random, SubstringIndex index, Map<Integer, String[]> expected) {
+        assertEquals(scan(expected, ""), index.search(""));
+        for (int i = 0; i < 20; i++) {
+            String query;
+            if (i % 2 == 0 || expected.isEmpty()) {
+                query = text(random, 1 + random.nextInt(5));
+            } else {
+                String[] fields = expected.values().stream().skip(random.nextInt(expected.size())).findFirst().get();
+                String source = normalize(fields[random.nextInt(2)]);
+                if (source.isEmpty()) {
+                    continue;
+                }
+                int from = random.nextInt(source.length());
+                query = source.substring(from, Math.min(source.length(), from + 1 + random.nextInt(6)));
+                if (random.nextBoolean()) {
+                    query = query.toUpperCase(Locale.ROOT);
+                }
+            }
+            assertEquals("'" + query + "'", scan(expected, query), index.search(query));
+        }
+    }
+    
+    private static BitSet scan(Map<Integer, String[]> expected, String query) {
+        String q = normalize(query);
+        BitSet matches = new BitSet();
+        for (Map.Entry<Integer, String[]> entry : expected.entrySet()) {
+            String[] fields = entry.getValue();
+            if (normalize(fields[0]).contains(q) || normalize(fields[1]).contains(q)) {
+                matches.set(entry.getKey());
+            }
+        }
+        return matches;
+    }
+    
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static String text(Random random) {
+        return text(random, random.nextInt(12));
+    }
+    
+    private static String text(Random random, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append(LETTERS[random.nextInt(LETTERS.length)]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.passwordmanager.ui;
+
+import com.passwordmanager.database.DatabaseManager;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class RowListTest {
+    private static final Comparator<DatabaseManager.PasswordSummary> ORDER =
+            Comparator.comparing((DatabaseManager.PasswordSummary summary) -> summary.createdAt,
+                            Comparator.reverseOrder())
+                    .thenComparingInt(summary -> summary.id);
+    
+    @Test
+    public void matchesSortedListUnderRandomChurn() {
+        Random random = new Random(11);
+        List<DatabaseManager.PasswordSummary> expected = new ArrayList<>();
+        int nextId = 0;
+        for (; nextId < 500; nextId++) {
+            expected.add(summary(nextId, random.nextInt(200)));
+        }
+        expected.sort(ORDER);
+        RowList rows = new RowList(expected);
+        assertMatches(expected, rows);
+        
+        for (int step = 0; step < 5000; step++) {
+            int action = random.nextInt(3);
+            if (action == 0 || expected.isEmpty()) {
+                DatabaseManager.PasswordSummary added = summary(nextId++, random.nextInt(200));
+                int row = rows.insert(added, ORDER);
+                expected.add(row, added);
+                assertEquals(expected, sorted(expected));
+            } else if (action == 1) {
+                DatabaseManager.PasswordSummary old = expected.get(random.nextInt(expected.size()));
+                DatabaseManager.PasswordSummary renamed = new DatabaseManager.PasswordSummary(old.id, "renamed",
+                        old.username, old.encryptionType, old.createdAt, old.updatedAt);
+                int row = rows.replace(renamed);
+                assertSame(old, expected.set(row, renamed));
+            } else {
+                DatabaseManager.PasswordSummary victim = expected.get(random.nextInt(expected.size()));
+                assertSame(victim, expected.remove(rows.remove(victim.id)));
+            }
+            if (step % 250 == 0) {
+                assertMatches(expected, rows);
+            }
+        }
+        assertMatches(expected, rows);
+        assertEquals(-1, rows.indexOf(-5));
+        assertEquals(-1, rows.remove(-5));
+    }
+    
+    private static void assertMatches(List<DatabaseManager.PasswordSummary> expected, RowList rows) {
+        assertEquals(expected.size(), rows.size());
+        for (int row = 0; row < expected.size(); row++) {
+            assertSame(expected.get(row), rows.get(row));
+            assertEquals(row, rows.indexOf(expected.get(row).id));
+        }
+        for (int row = expected.size() - 1; row >= 0; row -= 3) {
+            assertSame(expected.get(row), rows.get(row));
+        }
+    }
+    
+    private static List<DatabaseManager.PasswordSummary> sorted(List<DatabaseManager.PasswordSummary> rows) {
+        List<DatabaseManager.PasswordSummary> copy = new ArrayList<>(rows);
+        copy.sort(ORDER);
+        return copy;
+    }
+    
+    private static DatabaseManager.PasswordSummary summary(int id, int second) {
+        Timestamp createdAt = new Timestamp(1_700_000_000_000L + second * 1000L);
+        return new DatabaseManager.PasswordSummary(id, "service" + id, "user" + id, "PLAINTEXT", createdAt, createdAt);
+    }
+}